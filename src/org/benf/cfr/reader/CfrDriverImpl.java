@@ -10,6 +10,7 @@ import org.benf.cfr.reader.state.DCCommonState;
 import org.benf.cfr.reader.util.AnalysisType;
 import org.benf.cfr.reader.util.getopt.Options;
 import org.benf.cfr.reader.util.getopt.OptionsImpl;
+import org.benf.cfr.reader.util.output.AsyncOutputWriter;
 import org.benf.cfr.reader.util.output.DumperFactory;
 import org.benf.cfr.reader.util.output.InternalDumperFactoryImpl;
 import org.benf.cfr.reader.util.output.SinkDumperFactory;
@@ -30,13 +31,33 @@ public class CfrDriverImpl implements CfrDriver {
         if (source == null) {
             source = new ClassFileSourceImpl(options);
         }
+        /*
+         * An incremental run writes nothing for classes it keeps, so they need to still be there from last time.
+         */
+        if (options.optionIsSet(OptionsImpl.INCREMENTAL) &&
+                (outputSinkFactory != null || options.optionIsSet(OptionsImpl.OUTPUT_ZIP) ||
+                 !(options.optionIsSet(OptionsImpl.OUTPUT_DIR) || options.optionIsSet(OptionsImpl.OUTPUT_PATH)))) {
+            throw new IllegalArgumentException("Option '" + OptionsImpl.INCREMENTAL.getName() + "' requires output to files, with '" +
+                    OptionsImpl.OUTPUT_DIR.getName() + "' or '" + OptionsImpl.OUTPUT_PATH.getName() + "'");
+        }
         this.outputSinkFactory = outputSinkFactory;
         this.options = options;
         this.classFileSource = source instanceof ClassFileSource2 ? (ClassFileSource2)source : new ClassFileSourceWrapper(source);
     }
 
+    /*
+     * Each input writes its own summary, and may have classes with the same names as another, so a zip only
+     * has room for one.
+     */
+    static void checkInputs(List<String> toAnalyse, Options options) {
+        if (toAnalyse.size() > 1 && options.optionIsSet(OptionsImpl.OUTPUT_ZIP)) {
+            throw new IllegalArgumentException("Option '" + OptionsImpl.OUTPUT_ZIP.getName() + "' only allows one file to be analysed");
+        }
+    }
+
     @Override
     public void analyse(List<String> toAnalyse) {
+        if (outputSinkFactory == null) checkInputs(toAnalyse, options);
         /*
          * There's an interesting question here - do we want to skip inner classes, if we've been given a wildcard?
          * (or a wildcard expanded by the operating system).
@@ -46,26 +67,32 @@ public class CfrDriverImpl implements CfrDriver {
         boolean skipInnerClass = toAnalyse.size() > 1 && options.getOption(OptionsImpl.SKIP_BATCH_INNER_CLASSES);
 
         Collections.sort(toAnalyse);
-        for (String path : toAnalyse) {
-            // TODO : We shouldn't have to discard state here.  But we do, because
-            // it causes test fails.  (used class name table retains useful symbols).
-            classFileSource.informAnalysisRelativePathDetail(null, null);
-            // Note - both of these need to be reset, as they have caches.
-            DCCommonState dcCommonState = new DCCommonState(options, classFileSource);
-            DumperFactory dumperFactory = outputSinkFactory != null ?
-                    new SinkDumperFactory(outputSinkFactory, options) :
-                    new InternalDumperFactoryImpl(options);
+        // Shared by every path, as they go to the same place.
+        AsyncOutputWriter outputWriter = outputSinkFactory == null ? InternalDumperFactoryImpl.createOutputWriter(options) : null;
+        try {
+            for (String path : toAnalyse) {
+                // TODO : We shouldn't have to discard state here.  But we do, because
+                // it causes test fails.  (used class name table retains useful symbols).
+                classFileSource.informAnalysisRelativePathDetail(null, null);
+                // Note - both of these need to be reset, as they have caches.
+                DumperFactory dumperFactory = outputSinkFactory != null ?
+                        new SinkDumperFactory(outputSinkFactory, options) :
+                        new InternalDumperFactoryImpl(options, outputWriter);
+                DCCommonState dcCommonState = new DCCommonState(options, classFileSource, dumperFactory.getExceptionDumper());
 
-            AnalysisType type = options.getOption(OptionsImpl.ANALYSE_AS);
-            if (type == null || type == AnalysisType.DETECT) {
-                type = dcCommonState.detectClsJar(path);
-            }
+                AnalysisType type = options.getOption(OptionsImpl.ANALYSE_AS);
+                if (type == null || type == AnalysisType.DETECT) {
+                    type = dcCommonState.detectClsJar(path);
+                }
 
-            if (type == AnalysisType.JAR || type == AnalysisType.WAR) {
-                Driver.doJar(dcCommonState, path, type, dumperFactory);
-            } else if (type == AnalysisType.CLASS) {
-                Driver.doClass(dcCommonState, path, skipInnerClass, dumperFactory);
+                if (type == AnalysisType.JAR || type == AnalysisType.WAR) {
+                    Driver.doJar(dcCommonState, path, type, dumperFactory);
+                } else if (type == AnalysisType.CLASS) {
+                    Driver.doClass(dcCommonState, path, skipInnerClass, dumperFactory);
+                }
             }
+        } finally {
+            if (outputWriter != null) outputWriter.close();
         }
     }
 }
@@ -67,6 +67,11 @@ class Driver {
                 MemberNameResolver.resolveNames(dcCommonState, ListFactory.newList(dcCommonState.getClassCache().getLoadedTypes()));
             }
 
+            String methname = options.getOption(OptionsImpl.METHODNAME);
+            if (methname != null) {
+                c.skipAnalysisExcept(methname);
+            }
+
             // THEN analyse.
             c.analyseTop(dcCommonState);
             /*
@@ -78,7 +83,6 @@ class Driver {
             d = dumperFactory.getNewTopLevelDumper(c.getClassType(), summaryDumper, collectingDumper.getTypeUsageInformation(), illegalIdentifierDump);
             d = dcCommonState.getObfuscationMapping().wrap(d);
 
-            String methname = options.getOption(OptionsImpl.METHODNAME);
             if (methname == null) {
                 c.dump(d);
             } else {
@@ -214,55 +218,90 @@ class Driver {
          * If resolving names, we need a first pass...... otherwise foreign referents will
          * not see the renaming, depending on order of class files....
          */
-        if (options.getOption(OptionsImpl.RENAME_DUP_MEMBERS) ||
-                options.getOption(OptionsImpl.RENAME_ENUM_MEMBERS)) {
+        boolean renaming = options.getOption(OptionsImpl.RENAME_DUP_MEMBERS) ||
+                options.getOption(OptionsImpl.RENAME_ENUM_MEMBERS);
+        if (renaming) {
             MemberNameResolver.resolveNames(dcCommonState, types);
         }
+        /*
+         * A class which is in more than one version is loaded differently depending on which version we're doing,
+         * so we don't try to say what it used.
+         */
+        String incremental = options.getOption(OptionsImpl.INCREMENTAL);
+        IncrementalManifest manifest = null;
+        if (incremental != null && !renaming && forVersion == 0 && dcCommonState.getVersionCollisions().isEmpty()) {
+            manifest = new IncrementalManifest(dcCommonState, incremental, types);
+        }
         /*
          * If we're working on a case insensitive file system (OH COME ON!) then make sure that
          * we don't have any collisions.
          */
         for (JavaTypeInstance type : types) {
-            Dumper d = new ToStringDumper();  // Sentinel dumper.
+            if (manifest == null) {
+                doJarType(type, dcCommonState, dumperFactory, illegalIdentifierDump, summaryDumper, progressDumper, silent, lomem);
+                continue;
+            }
+            String path = IncrementalManifest.getPath(type);
+            if (manifest.keep(path)) continue;
+            dcCommonState.startRecordingUse();
+            boolean analysed = false;
             try {
-                ClassFile c = dcCommonState.getClassFile(type);
-                // Don't explicitly dump inner classes.  But make sure we ask the CLASS if it's
-                // an inner class, rather than using the name, as scala tends to abuse '$'.
-                if (c.isInnerClass()) {
-                    d = null;
-                    continue;
-                }
-                if (!silent) {
-                    type = dcCommonState.getObfuscationMapping().get(type);
-                    progressDumper.analysingType(type);
-                }
-                if (options.getOption(OptionsImpl.DECOMPILE_INNER_CLASSES)) {
-                    c.loadInnerClasses(dcCommonState);
-                }
-                // THEN analyse.
-                c.analyseTop(dcCommonState);
-
-                TypeUsageCollector collectingDumper = new TypeUsageCollectorImpl(options, c);
-                c.collectTypeUsages(collectingDumper);
-                JavaTypeInstance classType = c.getClassType();
-                classType = dcCommonState.getObfuscationMapping().get(classType);
-                d = dumperFactory.getNewTopLevelDumper(classType, summaryDumper, collectingDumper.getTypeUsageInformation(), illegalIdentifierDump);
-                d = dcCommonState.getObfuscationMapping().wrap(d);
-
-                c.dump(d);
-                d.newln();
-                d.newln();
-                if (lomem) {
-                    c.releaseCode();
-                }
-            } catch (Dumper.CannotCreate e) {
-                throw e;
-            } catch (RuntimeException e) {
-                d.print(e.toString()).newln().newln().newln();
+                analysed = doJarType(type, dcCommonState, dumperFactory, illegalIdentifierDump, summaryDumper, progressDumper, silent, lomem);
             } finally {
-                if (d != null) d.close();
+                Set<String> used = dcCommonState.stopRecordingUse();
+                // Inner classes are analysed (and recorded) with their outer class.
+                if (analysed) manifest.record(path, used);
             }
+        }
+        if (manifest != null) {
+            manifest.save();
+        }
+    }
 
+    /*
+     * False if this is an inner class, which is dumped with its outer class, rather than on its own.
+     */
+    private static boolean doJarType(JavaTypeInstance type, DCCommonState dcCommonState, DumperFactory dumperFactory, IllegalIdentifierDump illegalIdentifierDump, SummaryDumper summaryDumper, ProgressDumper progressDumper, boolean silent, boolean lomem) {
+        Options options = dcCommonState.getOptions();
+        Dumper d = new ToStringDumper();  // Sentinel dumper.
+        try {
+            ClassFile c = dcCommonState.getClassFile(type);
+            // Don't explicitly dump inner classes.  But make sure we ask the CLASS if it's
+            // an inner class, rather than using the name, as scala tends to abuse '$'.
+            if (c.isInnerClass()) {
+                d = null;
+                return false;
+            }
+            if (!silent) {
+                type = dcCommonState.getObfuscationMapping().get(type);
+                progressDumper.analysingType(type);
+            }
+            if (options.getOption(OptionsImpl.DECOMPILE_INNER_CLASSES)) {
+                c.loadInnerClasses(dcCommonState);
+            }
+            // THEN analyse.
+            c.analyseTop(dcCommonState);
+
+            TypeUsageCollector collectingDumper = new TypeUsageCollectorImpl(options, c);
+            c.collectTypeUsages(collectingDumper);
+            JavaTypeInstance classType = c.getClassType();
+            classType = dcCommonState.getObfuscationMapping().get(classType);
+            d = dumperFactory.getNewTopLevelDumper(classType, summaryDumper, collectingDumper.getTypeUsageInformation(), illegalIdentifierDump);
+            d = dcCommonState.getObfuscationMapping().wrap(d);
+
+            c.dump(d);
+            d.newln();
+            d.newln();
+            if (lomem) {
+                c.releaseCode();
+            }
+        } catch (Dumper.CannotCreate e) {
+            throw e;
+        } catch (RuntimeException e) {
+            d.print(e.toString()).newln().newln().newln();
+        } finally {
+            if (d != null) d.close();
         }
+        return true;
     }
 }
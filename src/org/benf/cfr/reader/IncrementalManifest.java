@@ -0,0 +1,236 @@
+package org.benf.cfr.reader;
+
+import org.benf.cfr.reader.bytecode.analysis.types.ClassNameUtils;
+import org.benf.cfr.reader.bytecode.analysis.types.JavaTypeInstance;
+import org.benf.cfr.reader.state.DCCommonState;
+import org.benf.cfr.reader.util.MiscConstants;
+import org.benf.cfr.reader.util.collections.ListFactory;
+import org.benf.cfr.reader.util.collections.MapFactory;
+import org.benf.cfr.reader.util.collections.SetFactory;
+import org.benf.cfr.reader.util.getopt.Options;
+import org.benf.cfr.reader.util.getopt.OptionsImpl;
+import org.benf.cfr.reader.util.getopt.PermittedOptionProvider;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/*
+ * What a previous run over a jar decompiled, so that a later run over a new build of it can skip classes whose
+ * output can't have changed.
+ *
+ * For each class we decompiled, we record every class file its analysis asked for - its inner classes, supers,
+ * anything it inlined from (synthetic accessors, lambda bodies, enum switch lookups, relinked constants) - and
+ * the hash of each of those.  Answers cached from other class files (such as bound supers) note the classes
+ * they came from when they're reused, so a class which was answered from a cache another class warmed still
+ * records them.  A class is unchanged if none of those have changed, and (as a class we used may itself have
+ * been analysed using others) nor have any of theirs.
+ *
+ * The names of the classes in the jar affect output too (imports, name clashes), as do options, so if the set
+ * of classes or the options have changed, or we're a different version, we start again.
+ *
+ * A class we keep isn't written at all - so this only makes sense when output is to files, which are still
+ * there from last time.  (CfrDriverImpl won't allow anything else.)
+ *
+ * The manifest is text - a header line, then tab separated 'H path hash' and 'C path used...' lines.
+ */
+class IncrementalManifest {
+    private static final String HEADER = "CFR-INCREMENTAL";
+    private static final String ABSENT = "-";
+
+    private final DCCommonState dcCommonState;
+    private final File file;
+    private final String header;
+    private final Map<String, String> oldHashes = MapFactory.newMap();
+    private final Map<String, List<String>> oldUses = MapFactory.newMap();
+    private final Map<String, List<String>> uses = MapFactory.newOrderedMap();
+    private final Map<String, String> currentHashes = MapFactory.newMap();
+    private Set<String> changed;
+
+    IncrementalManifest(DCCommonState dcCommonState, String path, List<JavaTypeInstance> types) {
+        this.dcCommonState = dcCommonState;
+        this.file = new File(path);
+        List<String> names = ListFactory.newList();
+        for (JavaTypeInstance type : types) {
+            names.add(type.getRawName());
+        }
+        Collections.sort(names);
+        StringBuilder sb = new StringBuilder();
+        for (String name : names) {
+            sb.append(name).append('\n');
+        }
+        this.header = HEADER + "\t" + MiscConstants.CFR_VERSION + "\t" + hash(sb.toString().getBytes()) +
+                "\t" + hash(getOptionsDescription(dcCommonState.getOptions()).getBytes());
+        load();
+    }
+
+    /*
+     * Every option which is set, other than those which can't change what's written.
+     */
+    private static String getOptionsDescription(Options options) {
+        Set<PermittedOptionProvider.ArgumentParam<?, ?>> ignored = SetFactory.<PermittedOptionProvider.ArgumentParam<?, ?>>newSet(
+                OptionsImpl.INCREMENTAL, OptionsImpl.SILENT, OptionsImpl.CLOBBER_FILES, OptionsImpl.ASYNC_OUTPUT);
+        StringBuilder sb = new StringBuilder();
+        for (PermittedOptionProvider.ArgumentParam<?, ?> option : OptionsImpl.getFactory().getArguments()) {
+            if (ignored.contains(option) || !options.optionIsSet(option)) continue;
+            sb.append(option.getName()).append('=').append(getValue(options, option)).append('\n');
+        }
+        return sb.toString();
+    }
+
+    /*
+     * As the option is set, it doesn't need the argument a default might.
+     */
+    @SuppressWarnings("unchecked")
+    private static Object getValue(Options options, PermittedOptionProvider.ArgumentParam<?, ?> option) {
+        return options.getOption((PermittedOptionProvider.ArgumentParam<Object, Object>) option, null);
+    }
+
+    static String getPath(JavaTypeInstance type) {
+        return ClassNameUtils.convertToPath(type.getRawName()) + ".class";
+    }
+
+    private void load() {
+        if (!file.exists()) return;
+        try {
+            BufferedReader reader = new BufferedReader(new InputStreamReader(new FileInputStream(file), "UTF-8"));
+            try {
+                if (!header.equals(reader.readLine())) return;
+                String line;
+                while ((line = reader.readLine()) != null) {
+                    String[] parts = line.split("\t");
+                    if (parts.length < 2) continue;
+                    if (parts[0].equals("H") && parts.length == 3) {
+                        oldHashes.put(parts[1], parts[2]);
+                    } else if (parts[0].equals("C")) {
+                        List<String> used = ListFactory.newList();
+                        for (int x = 2; x < parts.length; ++x) {
+                            used.add(parts[x]);
+                        }
+                        oldUses.put(parts[1], used);
+                    }
+                }
+            } finally {
+                reader.close();
+            }
+        } catch (IOException e) {
+            // Then we just do everything.
+            oldHashes.clear();
+            oldUses.clear();
+        }
+    }
+
+    /*
+     * Can we keep the output from last time?  If so, we remember what it used for next time.
+     */
+    boolean keep(String path) {
+        List<String> used = oldUses.get(path);
+        if (used == null) return false;
+        if (changed == null) changed = findChanged();
+        if (changed.contains(path)) return false;
+        uses.put(path, used);
+        return true;
+    }
+
+    /*
+     * Everything we had output for last time which used a class that has changed - or used something which
+     * did, and so on, as a class we used may itself have been analysed using others.
+     */
+    private Set<String> findChanged() {
+        Map<String, List<String>> usedBy = MapFactory.newMap();
+        List<String> todo = ListFactory.newList();
+        for (Map.Entry<String, List<String>> entry : oldUses.entrySet()) {
+            String path = entry.getKey();
+            boolean dirty = false;
+            for (String used : entry.getValue()) {
+                String oldHash = oldHashes.get(used);
+                if (oldHash == null || !oldHash.equals(getCurrentHash(used))) dirty = true;
+                List<String> users = usedBy.get(used);
+                if (users == null) {
+                    users = ListFactory.newList();
+                    usedBy.put(used, users);
+                }
+                users.add(path);
+            }
+            if (dirty) todo.add(path);
+        }
+        Set<String> res = SetFactory.newSet(todo);
+        while (!todo.isEmpty()) {
+            String path = todo.remove(todo.size() - 1);
+            List<String> users = usedBy.get(path);
+            if (users == null) continue;
+            for (String user : users) {
+                if (res.add(user)) todo.add(user);
+            }
+        }
+        return res;
+    }
+
+    void record(String path, Set<String> used) {
+        List<String> usedList = ListFactory.newList(used);
+        if (!used.contains(path)) usedList.add(0, path);
+        uses.put(path, usedList);
+    }
+
+    void save() {
+        Set<String> paths = SetFactory.newOrderedSet();
+        for (List<String> used : uses.values()) {
+            paths.addAll(used);
+        }
+        try {
+            Writer writer = new BufferedWriter(new OutputStreamWriter(new FileOutputStream(file), "UTF-8"));
+            try {
+                writer.write(header + "\n");
+                for (String path : paths) {
+                    writer.write("H\t" + path + "\t" + getCurrentHash(path) + "\n");
+                }
+                for (Map.Entry<String, List<String>> entry : uses.entrySet()) {
+                    writer.write("C\t" + entry.getKey());
+                    for (String used : entry.getValue()) {
+                        writer.write("\t" + used);
+                    }
+                    writer.write("\n");
+                }
+            } finally {
+                writer.close();
+            }
+        } catch (IOException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private String getCurrentHash(String path) {
+        String res = currentHashes.get(path);
+        if (res == null) {
+            byte[] content = dcCommonState.getCurrentClassFileContent(path);
+            res = content == null ? ABSENT : hash(content);
+            currentHashes.put(path, res);
+        }
+        return res;
+    }
+
+    private static String hash(byte[] content) {
+        try {
+            byte[] digest = MessageDigest.getInstance("MD5").digest(content);
+            StringBuilder sb = new StringBuilder();
+            for (byte b : digest) {
+                sb.append(String.format("%02x", b & 0xff));
+            }
+            return sb.toString();
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
@@ -35,6 +35,7 @@ public class Main {
             if (files.size() == 0) {
                 throw new IllegalArgumentException("Insufficient unqualified parameters - provide at least one filename.");
             }
+            CfrDriverImpl.checkInputs(files, options);
         } catch (Exception e) {
             getOptParser.showHelp(e);
             System.exit(1);
@@ -45,7 +46,14 @@ public class Main {
             return;
         }
 
-        CfrDriver cfrDriver = new CfrDriver.Builder().withBuiltOptions(options).build();
+        CfrDriver cfrDriver = null;
+        try {
+            cfrDriver = new CfrDriver.Builder().withBuiltOptions(options).build();
+        } catch (IllegalArgumentException e) {
+            // Options which parse, but don't make sense together.
+            getOptParser.showHelp(e);
+            System.exit(1);
+        }
         cfrDriver.analyse(files);
     }
 }
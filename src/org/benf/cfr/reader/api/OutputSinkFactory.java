@@ -29,7 +29,21 @@ public interface OutputSinkFactory {
          *
          * Note that these tokens may be reused, and should not be cached.
          */
-        TOKEN_STREAM(SinkReturns.Token.class);
+        TOKEN_STREAM(SinkReturns.Token.class),
+        /**
+         * Sinks will accept a stream of {@link org.benf.cfr.reader.api.SinkReturns.DecompiledChunk}, as the java
+         * is produced, terminating in a chunk marked last for any given file.
+         *
+         * Note that these chunks (and their text) may be reused, and should not be cached.
+         */
+        DECOMPILED_CHUNKS(SinkReturns.DecompiledChunk.class),
+        /**
+         * Sinks will accept {@link org.benf.cfr.reader.api.SinkReturns.TokenBatch} - the same tokens as
+         * TOKEN_STREAM, many at a time, without an object per token.
+         *
+         * Note that batches are reused, and should not be cached.
+         */
+        TOKEN_BATCH(SinkReturns.TokenBatch.class);
 
         /**
          * Get the type of message that the sink will be expected to take.
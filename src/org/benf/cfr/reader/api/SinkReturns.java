@@ -63,6 +63,41 @@ public interface SinkReturns {
         int getRuntimeFrom();
     }
 
+    /**
+     * A bounded piece of the java for a class, delivered while the class is still being written - so that a
+     * whole class never needs to be held as one string.
+     *
+     * Chunks for a class arrive in order; the sink may block in write (eg on a socket), which will hold up
+     * decompilation until it returns.
+     */
+    interface DecompiledChunk {
+        /**
+         * @return the package of the class that has been analysed
+         */
+        String getPackageName();
+
+        /**
+         * @return the name of the class that has been analysed
+         */
+        String getClassName();
+
+        /**
+         * @return visible from JRE version, as for {@link DecompiledMultiVer#getRuntimeFrom()}.
+         */
+        int getRuntimeFrom();
+
+        /**
+         * @return the next piece of decompiled java.  Only valid until write returns - copy it if you need it
+         * for longer.
+         */
+        CharSequence getText();
+
+        /**
+         * @return if this is the final chunk of this class.  (The final chunk may have no text.)
+         */
+        boolean isLast();
+    }
+
     enum TokenTypeFlags {
         DEFINES
     }
@@ -104,6 +139,52 @@ public interface SinkReturns {
         }
     }
 
+    /**
+     * A run of tokens, as parallel arrays rather than a {@link Token} each - token i has type
+     * getTokenTypes()[i], text getText()[getTextOffsets()[i] .. getTextOffsets()[i+1]), and so on.
+     *
+     * Batches for a file arrive in order, the last ending with an EOF token.  The arrays are reused for the next
+     * batch (and may be longer than size()), so copy anything you need to keep.
+     */
+    interface TokenBatch {
+        /**
+         * @return number of tokens in this batch.
+         */
+        int size();
+
+        /**
+         * @return {@link TokenType} ordinal of each token.
+         */
+        int[] getTokenTypes();
+
+        /**
+         * @return characters of the text of every token in this batch, one after another.
+         */
+        char[] getText();
+
+        /**
+         * @return where each token's text starts in getText() - this has size() + 1 entries, the last being the
+         * end of the final token.
+         */
+        int[] getTextOffsets();
+
+        /**
+         * @return for each token, bit (1 &lt;&lt; {@link TokenTypeFlags} ordinal) set for each flag it has.
+         */
+        int[] getFlags();
+
+        /**
+         * @return for each token, -1, or an id for the thing it refers to (the same thing has the same id
+         * throughout a file).  This is the equivalent of {@link Token#getRawValue()} for identifiers and methods.
+         */
+        int[] getRefIds();
+
+        /**
+         * @return for each token, the value of a literal, or null.
+         */
+        Object[] getLiteralValues();
+    }
+
     interface Token {
         TokenType getTokenType();
 
@@ -37,6 +37,7 @@ import org.benf.cfr.reader.bytecode.analysis.opgraph.op4rewriters.SwitchEnumRewr
 import org.benf.cfr.reader.bytecode.analysis.opgraph.op4rewriters.SwitchStringRewriter;
 import org.benf.cfr.reader.bytecode.analysis.opgraph.op4rewriters.checker.IllegalReturnChecker;
 import org.benf.cfr.reader.bytecode.analysis.opgraph.op4rewriters.checker.LooseCatchChecker;
+import org.benf.cfr.reader.bytecode.analysis.opgraph.op4rewriters.checker.Op04Checker;
 import org.benf.cfr.reader.bytecode.analysis.opgraph.op4rewriters.checker.VoidVariableChecker;
 import org.benf.cfr.reader.bytecode.analysis.parse.rewriters.ExplicitTypeCallRewriter;
 import org.benf.cfr.reader.bytecode.analysis.parse.rewriters.StringBuilderRewriter;
@@ -68,6 +69,7 @@ import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
 import java.util.SortedMap;
 import java.util.TreeMap;
 
@@ -176,6 +178,15 @@ public class CodeAnalyser {
             res = getAnalysisOrWrapFail(0, instrs, dcCommonState, options, null, bytecodeMeta);
 
             if (res.isFailed() && options.getOption(OptionsImpl.RECOVER)) {
+                /*
+                 * Before we start guessing, see if the verifier can tell us which slots were reused.
+                 * This splits every lifetime in such a slot, which is often more than needed, so is opt in.
+                 */
+                if (options.getOption(OptionsImpl.USE_STACKMAP_SLOT_HINTS) &&
+                        method.getClassFile().getClassFileVersion().equalOrLater(ClassFileVersion.JAVA_7)) {
+                    Set<Integer> reusedSlots = StackMapSlotHints.getReusedSlots(method, originalCodeAttribute);
+                    if (!reusedSlots.isEmpty()) bytecodeMeta.informLivenessClashes(reusedSlots);
+                }
                 int passIdx = 1;
                 for (RecoveryOptions recoveryOptions : recoveryOptionsArr) {
                     RecoveryOptions.Applied applied = recoveryOptions.apply(dcCommonState, options, bytecodeMeta);
@@ -361,7 +372,7 @@ public class CodeAnalyser {
         // consumed / produced.
         // This is the point at which we combine temporaries from merging
         // stacks.
-        Op02WithProcessedDataAndRefs.populateStackInfo(op2list, method);
+        Op02WithProcessedDataAndRefs.populateStackInfo(op2list, method, dcCommonState.getExceptionDumper());
 
         /* Extra fun.  A ret can have a jump back to the instruction immediately following the JSR that called it.
          * So we have to search for RET instructions, then for each of them find any JSRs which could call it, and add
@@ -373,7 +384,7 @@ public class CodeAnalyser {
          */
         if (Op02WithProcessedDataAndRefs.processJSR(op2list)) {
             // Repopulate stack info, as it will have changed, as we might have cloned instructions.
-            Op02WithProcessedDataAndRefs.populateStackInfo(op2list, method);
+            Op02WithProcessedDataAndRefs.populateStackInfo(op2list, method, dcCommonState.getExceptionDumper());
         }
 
 
@@ -643,8 +654,7 @@ public class CodeAnalyser {
 
         // By now, we've (re)moved several statements, so it's possible that some jumps can be rewritten to
         // breaks again.
-        Op03Rewriters.removePointlessJumps(op03SimpleParseNodes);
-        Op03Rewriters.rewriteBreakStatements(op03SimpleParseNodes);
+        Op03Rewriters.removePointlessJumpsAndRewriteBreaks(op03SimpleParseNodes);
 
         // See if we can classify any more gotos - i.e. the last statement in a try block
         // which jumps to immediately after the catch block.
@@ -820,10 +830,9 @@ public class CodeAnalyser {
             // Some misc translations.
             Op04StructuredStatement.removeUnnecessaryVarargArrays(options, method, block);
 
-            Op04StructuredStatement.removePrimitiveDeconversion(options, method, block);
             // After the final boxing rewrite, go back and check for inconvertible type cast
             // chains.  (BoxingTest37b)
-            Op04StructuredStatement.rewriteBadCastChains(options, method, block);
+            Op04StructuredStatement.removePrimitiveDeconversionAndBadCastChains(options, method, block);
             // Or narrowing casts which are no longer needed because boxed assignments allow them.
             Op04StructuredStatement.rewriteNarrowingAssignments(options, method, block);
 
@@ -835,9 +844,11 @@ public class CodeAnalyser {
             /*
              * Now finally run some extra checks to spot wierdness.
              */
-            Op04StructuredStatement.applyChecker(new LooseCatchChecker(), block, comments);
-            Op04StructuredStatement.applyChecker(new VoidVariableChecker(), block, comments);
-            Op04StructuredStatement.applyChecker(new IllegalReturnChecker(), block, comments);
+            Op04StructuredStatement.applyCheckers(ListFactory.<Op04Checker>newList(
+                    new LooseCatchChecker(),
+                    new VoidVariableChecker(),
+                    new IllegalReturnChecker()
+            ), block, comments);
 
             Op04StructuredStatement.flattenNonReferencedBlocks(block);
             /*
@@ -0,0 +1,45 @@
+package org.benf.cfr.reader.bytecode;
+
+import org.benf.cfr.reader.entities.AccessFlagMethod;
+import org.benf.cfr.reader.entities.Method;
+import org.benf.cfr.reader.entities.attributes.AttributeCode;
+import org.benf.cfr.reader.entities.attributes.AttributeStackMapTable;
+import org.benf.cfr.reader.entities.constantpool.ConstantPool;
+import org.benf.cfr.reader.util.collections.MapFactory;
+import org.benf.cfr.reader.util.collections.SetFactory;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/*
+ * The stack map table tells us the type of every local at each branch target.  Since javac records the
+ * declared type of the variable in scope, a slot which is seen holding two different classes has been reused
+ * for unrelated variables - which is exactly when liveness analysis can merge them, and we'd otherwise only
+ * find out from a type clash, and a recovery pass to split them.
+ *
+ * Only worth asking for class files which must pass the type checking verifier - see AttributeStackMapTable.
+ */
+class StackMapSlotHints {
+    static Set<Integer> getReusedSlots(Method method, AttributeCode code) {
+        AttributeStackMapTable stackMapTable = code.getStackMapTable();
+        if (stackMapTable == null) return Collections.emptySet();
+        List<AttributeStackMapTable.LocalsFrame> frames = stackMapTable.getLocalsFrames(
+                AttributeStackMapTable.getInitialLocals(method.getRawDescriptor(), !method.testAccessFlag(AccessFlagMethod.ACC_STATIC)));
+        if (frames == null) return Collections.emptySet();
+        ConstantPool cp = code.getConstantPool();
+        Map<Integer, String> seen = MapFactory.newMap();
+        Set<Integer> res = SetFactory.newSet();
+        for (AttributeStackMapTable.LocalsFrame frame : frames) {
+            for (int slot = 0, len = frame.getNumSlots(); slot < len; ++slot) {
+                int classIndex = frame.getLocal(slot).getClassIndex();
+                if (classIndex < 0) continue;
+                String name = cp.getClassEntry(classIndex).getTextPath();
+                String previous = seen.put(slot, name);
+                if (previous != null && !previous.equals(name)) res.add(slot);
+            }
+        }
+        return res;
+    }
+}
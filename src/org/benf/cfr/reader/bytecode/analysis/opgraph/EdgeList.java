@@ -0,0 +1,139 @@
+package org.benf.cfr.reader.bytecode.analysis.opgraph;
+
+import java.util.AbstractList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.RandomAccess;
+
+/*
+ * Backing store for graph node sources / targets.
+ *
+ * Almost every node has one or two edges each way, so this starts small (ArrayList would allocate ten slots
+ * on first add), and compares by identity - graph nodes don't override equals, so this is what
+ * indexOf / remove would do anyway, without the virtual call per element.
+ *
+ * Order is preserved exactly as for ArrayList - conditional and switch rewriters depend on target order.
+ */
+final class EdgeList<T> extends AbstractList<T> implements RandomAccess {
+    private static final Object[] EMPTY = new Object[0];
+    private static final int INITIAL_CAPACITY = 2;
+
+    private Object[] elements = EMPTY;
+    private int size = 0;
+
+    private void ensureCapacity(int needed) {
+        if (needed <= elements.length) return;
+        int newCapacity = Math.max(needed, elements.length < INITIAL_CAPACITY ? INITIAL_CAPACITY : elements.length * 2);
+        elements = Arrays.copyOf(elements, newCapacity);
+    }
+
+    private void checkIndex(int index) {
+        if (index < 0 || index >= size) throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + size);
+    }
+
+    @Override
+    public int size() {
+        return size;
+    }
+
+    @SuppressWarnings("unchecked")
+    @Override
+    public T get(int index) {
+        checkIndex(index);
+        return (T) elements[index];
+    }
+
+    @SuppressWarnings("unchecked")
+    @Override
+    public T set(int index, T element) {
+        checkIndex(index);
+        T old = (T) elements[index];
+        elements[index] = element;
+        return old;
+    }
+
+    @Override
+    public boolean add(T element) {
+        ensureCapacity(size + 1);
+        elements[size++] = element;
+        modCount++;
+        return true;
+    }
+
+    @Override
+    public void add(int index, T element) {
+        if (index < 0 || index > size) throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + size);
+        ensureCapacity(size + 1);
+        System.arraycopy(elements, index, elements, index + 1, size - index);
+        elements[index] = element;
+        size++;
+        modCount++;
+    }
+
+    @Override
+    public boolean addAll(Collection<? extends T> c) {
+        Object[] other = c.toArray();
+        if (other.length == 0) return false;
+        ensureCapacity(size + other.length);
+        System.arraycopy(other, 0, elements, size, other.length);
+        size += other.length;
+        modCount++;
+        return true;
+    }
+
+    @SuppressWarnings("unchecked")
+    @Override
+    public T remove(int index) {
+        checkIndex(index);
+        T old = (T) elements[index];
+        int tail = size - index - 1;
+        if (tail > 0) System.arraycopy(elements, index + 1, elements, index, tail);
+        elements[--size] = null;
+        modCount++;
+        return old;
+    }
+
+    @Override
+    public boolean remove(Object o) {
+        int index = indexOf(o);
+        if (index == -1) return false;
+        remove(index);
+        return true;
+    }
+
+    @Override
+    public int indexOf(Object o) {
+        Object[] elements = this.elements;
+        for (int x = 0, len = size; x < len; ++x) {
+            if (elements[x] == o) return x;
+        }
+        return -1;
+    }
+
+    @Override
+    public int lastIndexOf(Object o) {
+        Object[] elements = this.elements;
+        for (int x = size - 1; x >= 0; --x) {
+            if (elements[x] == o) return x;
+        }
+        return -1;
+    }
+
+    @Override
+    public boolean contains(Object o) {
+        return indexOf(o) != -1;
+    }
+
+    @Override
+    public void clear() {
+        if (size == 0) return;
+        Arrays.fill(elements, 0, size, null);
+        size = 0;
+        modCount++;
+    }
+
+    @Override
+    public Object[] toArray() {
+        return Arrays.copyOf(elements, size);
+    }
+}
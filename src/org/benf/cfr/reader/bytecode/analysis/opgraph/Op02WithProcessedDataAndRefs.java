@@ -43,9 +43,11 @@ import org.benf.cfr.reader.util.functors.Predicate;
 import org.benf.cfr.reader.util.functors.UnaryFunction;
 import org.benf.cfr.reader.util.getopt.Options;
 import org.benf.cfr.reader.util.getopt.OptionsImpl;
+import org.benf.cfr.reader.util.graph.DenseIndexed;
 import org.benf.cfr.reader.util.graph.GraphVisitor;
 import org.benf.cfr.reader.util.graph.GraphVisitorDFS;
-import org.benf.cfr.reader.util.graph.GraphVisitorFIFO;
+import org.benf.cfr.reader.util.graph.GraphVisitorDenseDFS;
+import org.benf.cfr.reader.util.graph.GraphVisitorDenseFIFO;
 import org.benf.cfr.reader.util.lambda.LambdaUtils;
 import org.benf.cfr.reader.util.output.*;
 
@@ -53,10 +55,11 @@ import java.util.*;
 import java.util.logging.Logger;
 
 @SuppressWarnings("StatementWithEmptyBody")
-public class Op02WithProcessedDataAndRefs implements Dumpable, Graph<Op02WithProcessedDataAndRefs> {
+public class Op02WithProcessedDataAndRefs implements Dumpable, Graph<Op02WithProcessedDataAndRefs>, DenseIndexed {
     private static final Logger logger = LoggerFactory.create(Op02WithProcessedDataAndRefs.class);
 
     private InstrIndex index;
+    private int denseIndex = -1;
 
     private JVMInstr instr;
     private final int originalRawOffset;
@@ -120,6 +123,16 @@ public class Op02WithProcessedDataAndRefs implements Dumpable, Graph<Op02WithPro
         this.index = index;
     }
 
+    @Override
+    public int getDenseIndex() {
+        return denseIndex;
+    }
+
+    @Override
+    public void setDenseIndex(int denseIndex) {
+        this.denseIndex = denseIndex;
+    }
+
     public void addTarget(Op02WithProcessedDataAndRefs node) {
         targets.add(node);
     }
@@ -191,12 +204,16 @@ public class Op02WithProcessedDataAndRefs implements Dumpable, Graph<Op02WithPro
         return cpEntries;
     }
 
-    private void populateStackInfo(StackSim stackSim, Method method, LinkedList<Pair<StackSim, Op02WithProcessedDataAndRefs>> next) {
+    /*
+     * Returns the stack after this instruction, if this is the first time we've seen it (and its targets need
+     * visiting), otherwise null.
+     */
+    private StackSim populateStackInfo(StackSim stackSim, Method method) {
         StackDelta stackDelta = instr.getStackDelta(rawData, cpEntries, stackSim, method);
         if (stackDepthBeforeExecution != -1) {
             /* Catch instructions are funny, as we know we'll get here with 1 thing on the stack. */
             if (instr == JVMInstr.FAKE_CATCH) {
-                return;
+                return null;
             }
 
             if (stackSim.getDepth() != stackDepthBeforeExecution) {
@@ -226,7 +243,7 @@ public class Op02WithProcessedDataAndRefs implements Dumpable, Graph<Op02WithPro
                     unconsumedEntriesOld.get(i).mergeWith(unconsumedEntriesNew.get(i));
                 }
             }
-
+            return null;
         } else {
 
             if (instr == JVMInstr.FAKE_CATCH) {
@@ -248,13 +265,7 @@ public class Op02WithProcessedDataAndRefs implements Dumpable, Graph<Op02WithPro
                 // TODO: eliminate this - I can see how an obfuscator would use that....
                 this.unconsumedJoinedStack = newStackSim;
             }
-
-            /*
-             * Behave like a DFS, but we can't afford to blow stack, so queue.
-             */
-            for (int i = targets.size() - 1; i >= 0; --i) {
-                next.addFirst(Pair.make(newStackSim, targets.get(i)));
-            }
+            return newStackSim;
         }
     }
 
@@ -1522,39 +1533,96 @@ public class Op02WithProcessedDataAndRefs implements Dumpable, Graph<Op02WithPro
     }
 
 
-    public static void populateStackInfo(List<Op02WithProcessedDataAndRefs> op2list, Method method) {
+    public static void populateStackInfo(List<Op02WithProcessedDataAndRefs> op2list, Method method, ExceptionDumper exceptionDumper) {
         // We might have two passes if there are JSRS.  Reset.
-        for (Op02WithProcessedDataAndRefs op : op2list) {
+        int size = op2list.size();
+        for (int x = 0; x < size; ++x) {
+            Op02WithProcessedDataAndRefs op = op2list.get(x);
             op.resetStackInfo();
+            op.setDenseIndex(x);
         }
 
-        // This dump block only exists because we're debugging bad stack size calcuations.
-        LinkedList<Pair<StackSim, Op02WithProcessedDataAndRefs>> toProcess = ListFactory.newLinkedList();
-        toProcess.add(Pair.make(new StackSim(), op2list.get(0)));
+        /*
+         * Behave like a DFS, but we can't afford to blow stack, so keep our own.
+         *
+         * An instruction which is reached again with a stack it's already been given (common - anything which
+         * leaves the stack alone passes the same StackSim on) would only merge the same entries with themselves,
+         * so those are skipped.  That's checked as they're taken off, not as they're put on, so that everything
+         * else is visited in the same order as if we hadn't.
+         */
+        EntryStacks entryStacks = new EntryStacks(size);
+        Op02WithProcessedDataAndRefs[] pendingOps = new Op02WithProcessedDataAndRefs[16];
+        StackSim[] pendingStacks = new StackSim[16];
+        int pending = 0;
+        pendingOps[pending] = op2list.get(0);
+        pendingStacks[pending++] = new StackSim();
         try {
-            while (!toProcess.isEmpty()) {
-                Pair<StackSim, Op02WithProcessedDataAndRefs> next = toProcess.removeFirst();
-                Op02WithProcessedDataAndRefs o2 = next.getSecond();
-                StackSim stackSim = next.getFirst();
-                o2.populateStackInfo(stackSim, method, toProcess);
+            while (pending > 0) {
+                Op02WithProcessedDataAndRefs o2 = pendingOps[--pending];
+                StackSim stackSim = pendingStacks[pending];
+                pendingOps[pending] = null;
+                pendingStacks[pending] = null;
+                if (!entryStacks.add(o2.getDenseIndex(), stackSim)) continue;
+                StackSim newStackSim = o2.populateStackInfo(stackSim, method);
+                if (newStackSim == null) continue;
+                List<Op02WithProcessedDataAndRefs> targets = o2.targets;
+                for (int i = targets.size() - 1; i >= 0; --i) {
+                    if (pending == pendingOps.length) {
+                        pendingOps = Arrays.copyOf(pendingOps, pending * 2);
+                        pendingStacks = Arrays.copyOf(pendingStacks, pending * 2);
+                    }
+                    pendingOps[pending] = targets.get(i);
+                    pendingStacks[pending++] = newStackSim;
+                }
             }
         } catch (ConfusedCFRException e) {
+            // This dump block only exists because we're debugging bad stack size calcuations.
             Dumper dmp = new ToStringDumper();
             dmp.print("----[known stack info]------------").newln().newln();
             for (Op02WithProcessedDataAndRefs op : op2list) {
                 op.dump(dmp);
             }
-            System.err.print(dmp.toString());
+            exceptionDumper.noteException(method.getClassFile().getFilePath(), "Stack info for " + method + "\n" + dmp.toString(), e);
             throw e;
         }
+    }
+
+    /*
+     * Which stacks each instruction has been entered with.  Usually there's only one, so we don't allocate a
+     * set until we see a second.
+     */
+    private static class EntryStacks {
+        private final StackSim[] first;
+        private final Map<Integer, Set<StackSim>> others = MapFactory.newMap();
+
+        private EntryStacks(int size) {
+            this.first = new StackSim[size];
+        }
 
+        /*
+         * False if idx has already been entered with stackSim.
+         */
+        boolean add(int idx, StackSim stackSim) {
+            StackSim known = first[idx];
+            if (known == null) {
+                first[idx] = stackSim;
+                return true;
+            }
+            if (known == stackSim) return false;
+            Set<StackSim> more = others.get(idx);
+            if (more == null) {
+                more = SetFactory.newIdentitySet();
+                others.put(idx, more);
+            }
+            return more.add(stackSim);
+        }
     }
 
     public static void unlinkUnreachable(List<Op02WithProcessedDataAndRefs> op2list) {
 
         final Set<Op02WithProcessedDataAndRefs> reached = SetFactory.newSet();
         GraphVisitor<Op02WithProcessedDataAndRefs> reachableVisitor =
-                new GraphVisitorDFS<Op02WithProcessedDataAndRefs>(op2list.get(0),
+                new GraphVisitorDenseDFS<Op02WithProcessedDataAndRefs>(op2list.get(0),
                         new BinaryProcedure<Op02WithProcessedDataAndRefs, GraphVisitor<Op02WithProcessedDataAndRefs>>() {
                             @Override
                             public void call(Op02WithProcessedDataAndRefs arg1, GraphVisitor<Op02WithProcessedDataAndRefs> arg2) {
@@ -1735,7 +1803,7 @@ public class Op02WithProcessedDataAndRefs implements Dumpable, Graph<Op02WithPro
     @SuppressWarnings("unused")
     private static void removeUnusedSSAIdentifiers(SSAIdentifierFactory<Slot, StackType> ssaIdentifierFactory, Method method, List<Op02WithProcessedDataAndRefs> op2list) {
         final List<Op02WithProcessedDataAndRefs> endPoints = ListFactory.newList();
-        GraphVisitor<Op02WithProcessedDataAndRefs> gv = new GraphVisitorDFS<Op02WithProcessedDataAndRefs>(
+        GraphVisitor<Op02WithProcessedDataAndRefs> gv = new GraphVisitorDenseDFS<Op02WithProcessedDataAndRefs>(
                 op2list.get(0),
                 new BinaryProcedure<Op02WithProcessedDataAndRefs, GraphVisitor<Op02WithProcessedDataAndRefs>>() {
                     @Override
@@ -1929,7 +1997,7 @@ public class Op02WithProcessedDataAndRefs implements Dumpable, Graph<Op02WithPro
             }
         }
         // Now rationalise this map.
-        final Map<Pair<Slot, SSAIdent>, Ident> combinedMap = MapFactory.newOrderedMap();
+        final Map<Slot, Map<SSAIdent, Ident>> combinedMap = MapFactory.newMap();
 
         final IdentFactory identFactory = new IdentFactory();
         for (Map.Entry<Slot, Set<SSAIdent>> entry : poisoned.entrySet()) {
@@ -1950,42 +2018,45 @@ public class Op02WithProcessedDataAndRefs implements Dumpable, Graph<Op02WithPro
             //                   c->{a,c}
             // (and maybe {a,b}->{a,b,c} etc if we're lucky and have no early returns, but we can't
             // guarantee that).
-            // We need to find a 'full relationship' - i.e. create a reverse map as well, and then fully
-            // walk both.
+            // We need to find a 'full relationship' - i.e. fully walk both this, and its reverse.
             final Map<SSAIdent, Set<SSAIdent>> downMap = entry.getValue();
+            final Map<SSAIdent, Ident> slotCombined = MapFactory.newMap();
+            combinedMap.put(slot, slotCombined);
+            // Remember that this represents MULTIPLE maps, all usages of this slot superimposed.
+            // there will disjoint sets.
+            if (!livenessClashes.contains(slot.getIdx())) {
+                // Without clashes, what's reachable either way is just the connected component.
+                combineComponents(slot, downMap, identFactory, slotCombined);
+                continue;
+            }
+
             final Map<SSAIdent, Set<SSAIdent>> upMap = createReverseMap(downMap);
             Set<SSAIdent> keys = SetFactory.newOrderedSet();
             keys.addAll(downMap.keySet());
             keys.addAll(upMap.keySet());  // this is probably not necessary.....
-            // Remember that this represents MULTIPLE maps, all usages of this slot superimposed.
-            // there will disjoint sets.
 
-            for (SSAIdent key : keys) {
-                final Pair<Slot, SSAIdent> slotkey = Pair.make(slot, key);
-                if (combinedMap.containsKey(slotkey)) continue;
+            for (final SSAIdent key : keys) {
+                if (slotCombined.containsKey(key)) continue;
                 final Ident thisIdent = identFactory.getNextIdent(slot.getIdx());
                 GraphVisitor<SSAIdent> gv = new GraphVisitorDFS<SSAIdent>(key, new BinaryProcedure<SSAIdent, GraphVisitor<SSAIdent>>() {
                     @Override
                     public void call(SSAIdent arg1, GraphVisitor<SSAIdent> arg2) {
-                        Pair<Slot, SSAIdent> innerslotkey = Pair.make(slot, arg1);
                         // this is /definitely/ not right.... but it works.  Revisit.
-                        if (livenessClashes.contains(slot.getIdx())) {
-                            if (!innerslotkey.equals(slotkey)) {
-                                StackType s1 = innerslotkey.getFirst().getJavaTypeInstance().getStackType();
-                                StackType s2 = slotkey.getFirst().getJavaTypeInstance().getStackType();
-                                if (innerslotkey.getSecond().getComparisonType() instanceof StackType) {
-                                    s1 = (StackType)innerslotkey.getSecond().getComparisonType();
-                                }
-                                if (slotkey.getSecond().getComparisonType() instanceof StackType) {
-                                    s2 = (StackType)innerslotkey.getSecond().getComparisonType();
-                                }
-                                if (!(s1 == s2 && s1.isClosed())) {
-                                    return;
-                                }
+                        if (!arg1.equals(key)) {
+                            StackType s1 = slot.getJavaTypeInstance().getStackType();
+                            StackType s2 = s1;
+                            if (arg1.getComparisonType() instanceof StackType) {
+                                s1 = (StackType)arg1.getComparisonType();
+                            }
+                            if (key.getComparisonType() instanceof StackType) {
+                                s2 = (StackType)arg1.getComparisonType();
+                            }
+                            if (!(s1 == s2 && s1.isClosed())) {
+                                return;
                             }
                         }
-                        if (combinedMap.containsKey(innerslotkey)) return;
-                        combinedMap.put(innerslotkey, thisIdent);
+                        if (slotCombined.containsKey(arg1)) return;
+                        slotCombined.put(arg1, thisIdent);
                         arg2.enqueue(downMap.get(arg1));
                         arg2.enqueue(upMap.get(arg1));
                     }
@@ -2004,10 +2075,11 @@ public class Op02WithProcessedDataAndRefs implements Dumpable, Graph<Op02WithPro
         method.getMethodPrototype().computeParameters(method.getConstructorFlag(), op2list.get(0).localVariablesBySlot);
     }
 
-    private void mapSSASlots(Map<Pair<Slot, SSAIdent>, Ident> identmap) {
+    private void mapSSASlots(Map<Slot, Map<SSAIdent, Ident>> identmap) {
         Map<Slot, SSAIdent> knownIdents = ssaIdentifiers.getKnownIdentifiersOnExit();
         for (Map.Entry<Slot, SSAIdent> entry : knownIdents.entrySet()) {
-            Ident ident = identmap.get(Pair.make(entry.getKey(), entry.getValue()));
+            Map<SSAIdent, Ident> slotIdents = identmap.get(entry.getKey());
+            Ident ident = slotIdents == null ? null : slotIdents.get(entry.getValue());
             if (ident == null) {
                 throw new IllegalStateException("Null ident");
             }
@@ -2023,6 +2095,61 @@ public class Op02WithProcessedDataAndRefs implements Dumpable, Graph<Op02WithPro
         }
     }
 
+    /*
+     * Union find over the idents in a slot, linked either way by downMap.  Components are numbered in order of
+     * their first key (down keys, then any targets which aren't keys), which is the order a walk from each
+     * unvisited key would have found them.
+     */
+    private static void combineComponents(Slot slot, Map<SSAIdent, Set<SSAIdent>> downMap, IdentFactory identFactory, Map<SSAIdent, Ident> res) {
+        Map<SSAIdent, Integer> ids = MapFactory.newMap();
+        List<SSAIdent> keys = ListFactory.newList();
+        for (SSAIdent key : downMap.keySet()) {
+            ids.put(key, keys.size());
+            keys.add(key);
+        }
+        for (Set<SSAIdent> targets : downMap.values()) {
+            for (SSAIdent target : targets) {
+                if (ids.containsKey(target)) continue;
+                ids.put(target, keys.size());
+                keys.add(target);
+            }
+        }
+        int[] parent = new int[keys.size()];
+        for (int x = 0; x < parent.length; ++x) parent[x] = x;
+        for (Map.Entry<SSAIdent, Set<SSAIdent>> entry : downMap.entrySet()) {
+            int from = find(parent, ids.get(entry.getKey()));
+            for (SSAIdent target : entry.getValue()) {
+                int to = find(parent, ids.get(target));
+                if (from == to) continue;
+                // Keep the earlier as root, so a root is always its component's first key.
+                if (from < to) {
+                    parent[to] = from;
+                } else {
+                    parent[from] = to;
+                    from = to;
+                }
+            }
+        }
+        Ident[] componentIdents = new Ident[parent.length];
+        for (int x = 0; x < parent.length; ++x) {
+            int root = find(parent, x);
+            Ident ident = componentIdents[root];
+            if (ident == null) {
+                ident = identFactory.getNextIdent(slot.getIdx());
+                componentIdents[root] = ident;
+            }
+            res.put(keys.get(x), ident);
+        }
+    }
+
+    private static int find(int[] parent, int x) {
+        while (parent[x] != x) {
+            parent[x] = parent[parent[x]];
+            x = parent[x];
+        }
+        return x;
+    }
+
     private static Map<SSAIdent, Set<SSAIdent>> createReverseMap(Map<SSAIdent, Set<SSAIdent>> downMap) {
         Map<SSAIdent, Set<SSAIdent>> res = MapFactory.newLinkedLazyMap(new UnaryFunction<SSAIdent, Set<SSAIdent>>() {
             @Override
@@ -2058,7 +2185,7 @@ public class Op02WithProcessedDataAndRefs implements Dumpable, Graph<Op02WithPro
         // Nop out unreachable code, so as to not have this ugliness.
         // We start at 0 as that's not controversial ;)
 
-        GraphVisitor<Op02WithProcessedDataAndRefs> o2Converter = new GraphVisitorFIFO<Op02WithProcessedDataAndRefs>(op2list.get(0),
+        GraphVisitor<Op02WithProcessedDataAndRefs> o2Converter = new GraphVisitorDenseFIFO<Op02WithProcessedDataAndRefs>(op2list.get(0),
                 new BinaryProcedure<Op02WithProcessedDataAndRefs, GraphVisitor<Op02WithProcessedDataAndRefs>>() {
                     @Override
                     public void call(Op02WithProcessedDataAndRefs arg1, GraphVisitor<Op02WithProcessedDataAndRefs> arg2) {
@@ -2548,7 +2675,7 @@ public class Op02WithProcessedDataAndRefs implements Dumpable, Graph<Op02WithPro
         targets = getJsrsWithCommonTarget(jsrs);
         Set<Op02WithProcessedDataAndRefs> inlineCandidates = SetFactory.newSet();
         for (final Op02WithProcessedDataAndRefs target : targets.keySet()) {
-            GraphVisitor<Op02WithProcessedDataAndRefs> gv = new GraphVisitorDFS<Op02WithProcessedDataAndRefs>(target.getTargets(), new BinaryProcedure<Op02WithProcessedDataAndRefs, GraphVisitor<Op02WithProcessedDataAndRefs>>() {
+            GraphVisitor<Op02WithProcessedDataAndRefs> gv = new GraphVisitorDenseDFS<Op02WithProcessedDataAndRefs>(target.getTargets(), new BinaryProcedure<Op02WithProcessedDataAndRefs, GraphVisitor<Op02WithProcessedDataAndRefs>>() {
                 @Override
                 public void call(Op02WithProcessedDataAndRefs arg1, GraphVisitor<Op02WithProcessedDataAndRefs> arg2) {
                     if (isRET(arg1)) {
@@ -2592,7 +2719,7 @@ public class Op02WithProcessedDataAndRefs implements Dumpable, Graph<Op02WithPro
 
             // Process everything, but no longer abort if we cycle, just don't retrace.
             final List<Op02WithProcessedDataAndRefs> rets = ListFactory.newList();
-            GraphVisitor<Op02WithProcessedDataAndRefs> gv = new GraphVisitorDFS<Op02WithProcessedDataAndRefs>(target.getTargets(), new BinaryProcedure<Op02WithProcessedDataAndRefs, GraphVisitor<Op02WithProcessedDataAndRefs>>() {
+            GraphVisitor<Op02WithProcessedDataAndRefs> gv = new GraphVisitorDenseDFS<Op02WithProcessedDataAndRefs>(target.getTargets(), new BinaryProcedure<Op02WithProcessedDataAndRefs, GraphVisitor<Op02WithProcessedDataAndRefs>>() {
                 @Override
                 public void call(Op02WithProcessedDataAndRefs arg1, GraphVisitor<Op02WithProcessedDataAndRefs> arg2) {
                     if (isRET(arg1)) {
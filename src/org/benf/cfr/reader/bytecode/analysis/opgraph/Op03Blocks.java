@@ -22,7 +22,7 @@ import org.benf.cfr.reader.util.functors.UnaryFunction;
 import org.benf.cfr.reader.util.getopt.Options;
 import org.benf.cfr.reader.util.getopt.OptionsImpl;
 import org.benf.cfr.reader.util.graph.GraphVisitor;
-import org.benf.cfr.reader.util.graph.GraphVisitorDFS;
+import org.benf.cfr.reader.util.graph.GraphVisitorDenseDFS;
 
 import java.util.*;
 
@@ -289,7 +289,7 @@ public class Op03Blocks {
         final Map<Op03SimpleStatement, Block3> starts = MapFactory.newMap();
         final Map<Op03SimpleStatement, Block3> ends = MapFactory.newMap();
 
-        GraphVisitor<Op03SimpleStatement> gv = new GraphVisitorDFS<Op03SimpleStatement>(statements.get(0), new BinaryProcedure<Op03SimpleStatement, GraphVisitor<Op03SimpleStatement>>() {
+        GraphVisitor<Op03SimpleStatement> gv = new GraphVisitorDenseDFS<Op03SimpleStatement>(statements.get(0), new BinaryProcedure<Op03SimpleStatement, GraphVisitor<Op03SimpleStatement>>() {
             @Override
             public void call(Op03SimpleStatement arg1, GraphVisitor<Op03SimpleStatement> arg2) {
                 Block3 block = new Block3(arg1);
@@ -30,6 +30,7 @@ import org.benf.cfr.reader.util.collections.ListFactory;
 import org.benf.cfr.reader.util.collections.MapFactory;
 import org.benf.cfr.reader.util.collections.SetFactory;
 import org.benf.cfr.reader.util.functors.BinaryProcedure;
+import org.benf.cfr.reader.util.graph.DenseIndexed;
 import org.benf.cfr.reader.util.graph.GraphVisitor;
 import org.benf.cfr.reader.util.graph.GraphVisitorDFS;
 import org.benf.cfr.reader.util.output.Dumpable;
@@ -42,15 +43,16 @@ import java.util.List;
 import java.util.Map;
 import java.util.Set;
 
-public class Op03SimpleStatement implements MutableGraph<Op03SimpleStatement>, Dumpable, StatementContainer<Statement>, IndexedStatement {
-    private final List<Op03SimpleStatement> sources = ListFactory.newList();
-    private final List<Op03SimpleStatement> targets = ListFactory.newList();
+public class Op03SimpleStatement implements MutableGraph<Op03SimpleStatement>, Dumpable, StatementContainer<Statement>, IndexedStatement, DenseIndexed {
+    private final List<Op03SimpleStatement> sources = new EdgeList<Op03SimpleStatement>();
+    private final List<Op03SimpleStatement> targets = new EdgeList<Op03SimpleStatement>();
 
     private Op03SimpleStatement linearlyPrevious;
     private Op03SimpleStatement linearlyNext;
 
     private boolean isNop;
     private InstrIndex index;
+    private int denseIndex = -1;
     private Statement containedStatement;
     private SSAIdentifiers<LValue> ssaIdentifiers;
     // 
@@ -350,6 +352,16 @@ public class Op03SimpleStatement implements MutableGraph<Op03SimpleStatement>, D
         this.index = index;
     }
 
+    @Override
+    public int getDenseIndex() {
+        return denseIndex;
+    }
+
+    @Override
+    public void setDenseIndex(int denseIndex) {
+        this.denseIndex = denseIndex;
+    }
+
     public BlockIdentifier getThisComparisonBlock() {
         return thisComparisonBlock;
     }
@@ -43,6 +43,7 @@ import org.benf.cfr.reader.util.output.Dumper;
 import org.benf.cfr.reader.util.output.LoggerFactory;
 
 import java.util.*;
+import java.util.concurrent.atomic.AtomicLong;
 import java.util.logging.Logger;
 
 public class Op04StructuredStatement implements MutableGraph<Op04StructuredStatement>, Dumpable, StatementContainer<StructuredStatement>, TypeUsageCollectable {
@@ -55,12 +56,21 @@ public class Op04StructuredStatement implements MutableGraph<Op04StructuredState
     private StructuredStatement structuredStatement;
 
     private Set<BlockIdentifier> blockMembership;
+    // Last linearisation of this subtree, valid while structureGeneration is unchanged.
+    private List<StructuredStatement> linearised;
+    private long linearisedGeneration;
     // Handy for really icky breakpointing, oh I wish we had proper conditional compilation.
 //    private static int id = 0;
 //    private final int idx = id++;
 
     private static final Set<BlockIdentifier> EMPTY_BLOCKSET = SetFactory.newSet();
 
+    /*
+     * Bumped whenever any structured statement tree changes shape.  This is deliberately coarse - statements
+     * don't know their parents, so a change invalidates every cached linearisation, not just those containing it.
+     */
+    private static final AtomicLong structureGeneration = new AtomicLong();
+
     private static Set<BlockIdentifier> blockSet(Collection<BlockIdentifier> in) {
         if (in == null || in.isEmpty()) return EMPTY_BLOCKSET;
         return SetFactory.newSet(in);
@@ -147,6 +157,7 @@ public class Op04StructuredStatement implements MutableGraph<Op04StructuredState
 
     @Override
     public void replaceStatement(StructuredStatement newTarget) {
+        noteStructureChange();
         structuredStatement = newTarget;
         newTarget.setContainer(this);
     }
@@ -306,6 +317,33 @@ public class Op04StructuredStatement implements MutableGraph<Op04StructuredState
         structuredStatement.linearizeInto(out);
     }
 
+    /*
+     * As linearizeStatementsInto, but reuses the last result if no tree has changed shape since.  The result
+     * is shared, so can't be modified.  Null if this can't be linearised.
+     */
+    public List<StructuredStatement> getLinearisedStatements() {
+        long generation = structureGeneration.get();
+        if (linearised != null && linearisedGeneration == generation) return linearised;
+        List<StructuredStatement> res = ListFactory.newList();
+        try {
+            structuredStatement.linearizeInto(res);
+        } catch (UnsupportedOperationException e) {
+            linearised = null;
+            return null;
+        }
+        linearised = Collections.unmodifiableList(res);
+        linearisedGeneration = generation;
+        return linearised;
+    }
+
+    /*
+     * Must be called by anything which changes which statements are in a tree (rather than just rewriting
+     * expressions in place).
+     */
+    public static void noteStructureChange() {
+        structureGeneration.incrementAndGet();
+    }
+
     public void removeLastContinue(BlockIdentifier block) {
         if (structuredStatement instanceof Block) {
             boolean removed = ((Block) structuredStatement).removeLastContinue(block);
@@ -334,6 +372,7 @@ public class Op04StructuredStatement implements MutableGraph<Op04StructuredState
     public void informBlockMembership(Vector<BlockIdentifier> currentlyIn) {
         StructuredStatement replacement = structuredStatement.informBlockHeirachy(currentlyIn);
         if (replacement == null) return;
+        noteStructureChange();
         this.structuredStatement = replacement;
         replacement.setContainer(this);
     }
@@ -345,6 +384,7 @@ public class Op04StructuredStatement implements MutableGraph<Op04StructuredState
     }
 
     public void replaceStatementWithNOP(String comment) {
+        noteStructureChange();
         this.structuredStatement = new StructuredComment(comment);
         this.structuredStatement.setContainer(this);
     }
@@ -356,6 +396,7 @@ public class Op04StructuredStatement implements MutableGraph<Op04StructuredState
         }
         StructuredStatement replacement = structuredStatement.claimBlock(innerBlock, thisBlock, currentlyIn);
         if (replacement == null) return false;
+        noteStructureChange();
         this.structuredStatement = replacement;
         replacement.setContainer(this);
         return true;
@@ -663,6 +704,7 @@ public class Op04StructuredStatement implements MutableGraph<Op04StructuredState
         try {
             structuredStatement = transformer.transform(structuredStatement, scope);
             if (structuredStatement != old && structuredStatement != null) {
+                noteStructureChange();
                 structuredStatement.setContainer(this);
             }
         } finally {
@@ -745,13 +787,18 @@ public class Op04StructuredStatement implements MutableGraph<Op04StructuredState
         new TypedBooleanTidier().transform(root);
     }
 
+    /*
+     * These each only rewrite the statement in front of them, after its children, so can share one walk.
+     */
     public static void miscKeyholeTransforms(VariableFactory variableFactory, Op04StructuredStatement root) {
-        new NakedNullCaster().transform(root);
-        new LambdaCleaner().transform(root);
-        new TernaryCastCleaner().transform(root);
-        new InvalidBooleanCastCleaner().transform(root);
-        new HexLiteralTidier().transform(root);
-        new InvalidExpressionStatementCleaner(variableFactory).transform(root);
+        FusedStatementTransformer.postOrder(ListFactory.<LocalStructuredStatementTransformer>newList(
+                new NakedNullCaster(),
+                new LambdaCleaner(),
+                new TernaryCastCleaner(),
+                new InvalidBooleanCastCleaner(),
+                new HexLiteralTidier(),
+                new InvalidExpressionStatementCleaner(variableFactory)
+        )).transform(root);
     }
 
     public static void prettifyBadLoops(Op04StructuredStatement root) {
@@ -1184,6 +1231,19 @@ public class Op04StructuredStatement implements MutableGraph<Op04StructuredState
         root.transform(new ExpressionRewriterTransformer(new BadCastChainRewriter()), new StructuredScope());
     }
 
+    /*
+     * As removePrimitiveDeconversion then rewriteBadCastChains, in one walk - the cast chain rewrite only needs
+     * the boxing rewrite to have been done to the statement it's looking at.
+     */
+    public static void removePrimitiveDeconversionAndBadCastChains(Options options, Method method, Op04StructuredStatement root) {
+        List<LocalStructuredStatementTransformer> transformers = ListFactory.newList();
+        if (options.getOption(OptionsImpl.SUGAR_BOXING)) {
+            transformers.add(new ExpressionRewriterTransformer(new PrimitiveBoxingRewriter()));
+        }
+        transformers.add(new ExpressionRewriterTransformer(new BadCastChainRewriter()));
+        FusedStatementTransformer.preOrder(transformers).transform(root);
+    }
+
     public static void rewriteNarrowingAssignments(Options options, Method method, Op04StructuredStatement root) {
         new NarrowingAssignmentRewriter().rewrite(root);
     }
@@ -1211,6 +1271,15 @@ public class Op04StructuredStatement implements MutableGraph<Op04StructuredState
         checker.commentInto(comments);
     }
 
+    public static void applyCheckers(List<Op04Checker> checkers, Op04StructuredStatement root, DecompilerComments comments) {
+        List<LocalStructuredStatementTransformer> transformers = ListFactory.newList();
+        transformers.addAll(checkers);
+        FusedStatementTransformer.preOrder(transformers).transform(root);
+        for (Op04Checker checker : checkers) {
+            checker.commentInto(comments);
+        }
+    }
+
     public static boolean isTryWithResourceSynthetic(Method m, Op04StructuredStatement root) {
         return ResourceReleaseDetector.isResourceRelease(m, root);
     }
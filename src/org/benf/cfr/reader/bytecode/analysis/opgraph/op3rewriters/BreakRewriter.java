@@ -12,9 +12,14 @@ import java.util.Set;
 
 public class BreakRewriter {
     public static void rewriteBreakStatements(List<Op03SimpleStatement> statements) {
+        rewriteBreakStatements(statements, StatementKinds.of(statements));
+    }
+
+    static void rewriteBreakStatements(List<Op03SimpleStatement> statements, StatementKinds kinds) {
         Cleaner.reindexInPlace(statements);
         test:
-        for (Op03SimpleStatement statement : statements) {
+        for (int x : kinds.positionsOf(JumpingStatement.class)) {
+            Op03SimpleStatement statement = statements.get(x);
             Statement innerStatement = statement.getStatement();
             if (innerStatement instanceof JumpingStatement) {
                 JumpingStatement jumpingStatement = (JumpingStatement) innerStatement;
@@ -9,7 +9,7 @@ import org.benf.cfr.reader.util.collections.ListFactory;
 import org.benf.cfr.reader.util.collections.SetFactory;
 import org.benf.cfr.reader.util.functors.BinaryProcedure;
 import org.benf.cfr.reader.util.graph.GraphVisitor;
-import org.benf.cfr.reader.util.graph.GraphVisitorDFS;
+import org.benf.cfr.reader.util.graph.GraphVisitorDenseDFS;
 
 import java.util.Collections;
 import java.util.List;
@@ -19,7 +19,7 @@ public class Cleaner {
     public static List<Op03SimpleStatement> removeUnreachableCode(final List<Op03SimpleStatement> statements, final boolean checkBackJumps) {
         final Set<Op03SimpleStatement> reachable = SetFactory.newSet();
         reachable.add(statements.get(0));
-        GraphVisitor<Op03SimpleStatement> gv = new GraphVisitorDFS<Op03SimpleStatement>(statements.get(0), new BinaryProcedure<Op03SimpleStatement, GraphVisitor<Op03SimpleStatement>>() {
+        GraphVisitor<Op03SimpleStatement> gv = new GraphVisitorDenseDFS<Op03SimpleStatement>(statements.get(0), new BinaryProcedure<Op03SimpleStatement, GraphVisitor<Op03SimpleStatement>>() {
             @Override
             public void call(Op03SimpleStatement arg1, GraphVisitor<Op03SimpleStatement> arg2) {
                 reachable.add(arg1);
@@ -3,6 +3,7 @@ package org.benf.cfr.reader.bytecode.analysis.opgraph.op3rewriters;
 import org.benf.cfr.reader.bytecode.analysis.opgraph.Op03SimpleStatement;
 import org.benf.cfr.reader.bytecode.analysis.parse.rewriters.AccountingRewriter;
 import org.benf.cfr.reader.bytecode.analysis.parse.utils.LValueAssignmentAndAliasCondenser;
+import org.benf.cfr.reader.bytecode.analysis.parse.utils.LValueInterner;
 
 import java.util.List;
 
@@ -24,7 +25,8 @@ public class LValueProp {
         accountingRewriter.flush();
 
 
-        LValueAssignmentAndAliasCondenser lValueAssigmentCollector = new LValueAssignmentAndAliasCondenser();
+        LValueInterner interner = new LValueInterner();
+        LValueAssignmentAndAliasCondenser lValueAssigmentCollector = new LValueAssignmentAndAliasCondenser(interner);
         for (Op03SimpleStatement statement : statements) {
             statement.collect(lValueAssigmentCollector);
         }
@@ -48,7 +50,7 @@ public class LValueProp {
                 }
             }
 
-            lValueAssigmentCollector = new LValueAssignmentAndAliasCondenser();
+            lValueAssigmentCollector = new LValueAssignmentAndAliasCondenser(interner);
             for (Op03SimpleStatement statement : statements) {
                 statement.collect(lValueAssigmentCollector);
             }
@@ -21,6 +21,7 @@ import org.benf.cfr.reader.util.functors.Predicate;
 import org.benf.cfr.reader.util.functors.UnaryFunction;
 import org.benf.cfr.reader.util.graph.GraphVisitor;
 import org.benf.cfr.reader.util.graph.GraphVisitorDFS;
+import org.benf.cfr.reader.util.graph.GraphVisitorDenseDFS;
 
 import java.util.Collection;
 import java.util.List;
@@ -133,7 +134,7 @@ public class Misc {
 
         Set<Integer> reachableNodes = SetFactory.newSortedSet();
         GraphVisitorReachableInThese graphVisitorCallee = new GraphVisitorReachableInThese(reachableNodes, instrToIdx);
-        GraphVisitor<Op03SimpleStatement> visitor = new GraphVisitorDFS<Op03SimpleStatement>(statements.get(start), graphVisitorCallee);
+        GraphVisitor<Op03SimpleStatement> visitor = new GraphVisitorDenseDFS<Op03SimpleStatement>(statements.get(start), graphVisitorCallee);
         visitor.process();
 
         final int first = start;
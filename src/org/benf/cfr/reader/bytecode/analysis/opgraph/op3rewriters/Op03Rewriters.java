@@ -113,6 +113,15 @@ public class Op03Rewriters {
         PointlessJumps.removePointlessJumps(statements);
     }
 
+    /*
+     * Equivalent to removePointlessJumps then rewriteBreakStatements, but finds the jumps once.
+     */
+    public static void removePointlessJumpsAndRewriteBreaks(List<Op03SimpleStatement> statements) {
+        StatementKinds kinds = StatementKinds.of(statements);
+        PointlessJumps.removePointlessJumps(statements, kinds);
+        BreakRewriter.rewriteBreakStatements(statements, kinds);
+    }
+
     public static void eclipseLoopPass(List<Op03SimpleStatement> op03SimpleParseNodes) {
         EclipseLoops.eclipseLoopPass(op03SimpleParseNodes);
     }
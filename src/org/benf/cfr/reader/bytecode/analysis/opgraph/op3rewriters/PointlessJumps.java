@@ -19,6 +19,16 @@ public class PointlessJumps {
      * Normalise code by removing jumps which have been introduced to confuse.
      */
     public static void removePointlessJumps(List<Op03SimpleStatement> statements) {
+        removePointlessJumps(statements, StatementKinds.of(statements));
+    }
+
+    /*
+     * None of these passes add or remove statements, and the only kind change is to nop, so one snapshot of
+     * where the jumps are serves all of them.
+     */
+    static void removePointlessJumps(List<Op03SimpleStatement> statements, StatementKinds kinds) {
+        if (!kinds.hasAny(JumpingStatement.class)) return;
+        int[] gotos = kinds.positionsOf(GotoStatement.class);
 
         /*
          * Odd first pass, but we want to translate
@@ -32,7 +42,8 @@ public class PointlessJumps {
          * b : goto x
          */
         int size = statements.size() - 1;
-        for (int x = 0; x < size - 1; ++x) {
+        for (int x : gotos) {
+            if (x >= size - 1) break;
             Op03SimpleStatement a = statements.get(x);
             Op03SimpleStatement b = statements.get(x + 1);
             if (a.getStatement().getClass() == GotoStatement.class &&
@@ -51,7 +62,8 @@ public class PointlessJumps {
 
 
         // Do this pass first, as it needs spatial locality.
-        for (int x = 0; x < size-1; ++x) {
+        for (int x : gotos) {
+            if (x >= size - 1) break;
             Op03SimpleStatement maybeJump = statements.get(x);
             if (maybeJump.getStatement().getClass() == GotoStatement.class &&
                     maybeJump.getJumpType() != JumpType.BREAK &&
@@ -77,7 +89,8 @@ public class PointlessJumps {
             }
         }
 
-        for (Op03SimpleStatement statement : statements) {
+        for (int x : kinds.positionsOf(JumpingStatement.class)) {
+            Op03SimpleStatement statement = statements.get(x);
             Statement innerStatement = statement.getStatement();
             if (innerStatement instanceof JumpingStatement &&
                     statement.getSources().size() == 1 &&
@@ -98,8 +111,9 @@ public class PointlessJumps {
         /*
          * Do this backwards.  Generally, there'll be more chains shortened that way.
          */
-        for (int x = statements.size() - 1; x >= 0; --x) {
-            Op03SimpleStatement statement = statements.get(x);
+        int[] jumps = kinds.positionsOf(JumpingStatement.class);
+        for (int j = jumps.length - 1; j >= 0; --j) {
+            Op03SimpleStatement statement = statements.get(jumps[j]);
             Statement innerStatement = statement.getStatement();
             if (innerStatement.getClass() == GotoStatement.class) {
                 GotoStatement innerGoto = (GotoStatement) innerStatement;
@@ -0,0 +1,67 @@
+package org.benf.cfr.reader.bytecode.analysis.opgraph.op3rewriters;
+
+import org.benf.cfr.reader.bytecode.analysis.opgraph.Op03SimpleStatement;
+import org.benf.cfr.reader.util.collections.MapFactory;
+
+import java.util.List;
+import java.util.Map;
+
+/*
+ * Which kind of statement lives at each position of an op03 statement list, so that a pass which only
+ * cares about (say) jumps can visit just those, and several passes can share one sweep to find them.
+ *
+ * This is a snapshot by position - it stays usable as long as statements aren't inserted into / removed from
+ * the list.  Statements can and do change kind underneath it (nopOut, replaceStatement), but only ever by
+ * being replaced, so candidates should be re-checked when visited - a statement that wasn't a candidate
+ * when the index was taken will not have become one through the in-place rewrites that share an index.
+ */
+public class StatementKinds {
+    private final Class<?>[] kinds;
+    private final Map<Class<?>, int[]> positionsCache = MapFactory.newIdentityMap();
+
+    private StatementKinds(List<Op03SimpleStatement> statements) {
+        int size = statements.size();
+        this.kinds = new Class<?>[size];
+        for (int x = 0; x < size; ++x) {
+            kinds[x] = statements.get(x).getStatement().getClass();
+        }
+    }
+
+    public static StatementKinds of(List<Op03SimpleStatement> statements) {
+        return new StatementKinds(statements);
+    }
+
+    /*
+     * Ascending positions of statements which were (at snapshot time) instances of clazz.
+     */
+    public int[] positionsOf(Class<?> clazz) {
+        int[] res = positionsCache.get(clazz);
+        if (res != null) return res;
+        Map<Class<?>, Boolean> matches = MapFactory.newIdentityMap();
+        int count = 0;
+        boolean[] hit = new boolean[kinds.length];
+        for (int x = 0; x < kinds.length; ++x) {
+            Class<?> kind = kinds[x];
+            Boolean match = matches.get(kind);
+            if (match == null) {
+                match = clazz.isAssignableFrom(kind);
+                matches.put(kind, match);
+            }
+            if (match) {
+                hit[x] = true;
+                count++;
+            }
+        }
+        res = new int[count];
+        count = 0;
+        for (int x = 0; x < kinds.length; ++x) {
+            if (hit[x]) res[count++] = x;
+        }
+        positionsCache.put(clazz, res);
+        return res;
+    }
+
+    public boolean hasAny(Class<?> clazz) {
+        return positionsOf(clazz).length != 0;
+    }
+}
@@ -55,7 +55,7 @@ public class AssertRewriter {
             innerClassInfo = classType.getInnerClassHereInfo();
         }
 
-        Matcher<StructuredStatement> m = new ResetAfterTest(wcm1,
+        Matcher<StructuredStatement> m = new CompiledMatcher(new ResetAfterTest(wcm1,
                 new CollectMatch("ass1", new StructuredAssignment(
                         wcm1.getStaticVariable("assertbool", topClassType, new InferredJavaType(RawJavaType.BOOLEAN, InferredJavaType.Source.TEST)),
                         new NotOperation(new BooleanExpression(
@@ -64,7 +64,7 @@ public class AssertRewriter {
                                 )
                         ))
                 ))
-        );
+        ));
 
         AssertVarCollector matchResultCollector = new AssertVarCollector(wcm1);
         while (mi.hasNext()) {
@@ -133,7 +133,7 @@ public class AssertRewriter {
 
         WildcardMatch wcm1 = new WildcardMatch();
 
-        Matcher<StructuredStatement> m = new ResetAfterTest(wcm1,
+        Matcher<StructuredStatement> m = new CompiledMatcher(new ResetAfterTest(wcm1,
                 new MatchOneOf(
                         new CollectMatch("ass1", new MatchSequence(
                                 new StructuredIf(
@@ -194,7 +194,7 @@ public class AssertRewriter {
                                 new EndBlock(null)
                         ))
                 )
-        );
+        ));
 
 
         AssertUseCollector collector = new AssertUseCollector(wcm1);
@@ -34,7 +34,7 @@ public class InnerClassConstructorRewriter implements Op04Rewriter {
 
         WildcardMatch wcm1 = new WildcardMatch();
 
-        Matcher<StructuredStatement> m = new CollectMatch("ass1", new StructuredAssignment(wcm1.getLValueWildCard("outercopy"), new LValueExpression(outerArg)));
+        Matcher<StructuredStatement> m = new CompiledMatcher(new CollectMatch("ass1", new StructuredAssignment(wcm1.getLValueWildCard("outercopy"), new LValueExpression(outerArg))));
 
 
         /* The first usage of this variable needs to be an assignment to a final synthetic member */
@@ -188,7 +188,7 @@ public class SwitchEnumRewriter implements Op04Rewriter {
         if (structuredStatements == null) return;
 
         WildcardMatch wcm1 = new WildcardMatch();
-        Matcher<StructuredStatement> test =
+        Matcher<StructuredStatement> test = new CompiledMatcher(
                 new ResetAfterTest(wcm1,
                         new MatchSequence(
                             new MatchOneOf(
@@ -209,7 +209,7 @@ public class SwitchEnumRewriter implements Op04Rewriter {
                             new StructuredAssignment(wcm1.getLValueWildCard("lookup"), new NewPrimitiveArray(
                             new ArrayLength(wcm1.getStaticFunction("func", enumObject.getInferredJavaType().getJavaTypeInstance(), null, "values")),
                             RawJavaType.INT)))
-                );
+                ));
 
         MatchIterator<StructuredStatement> mi = new MatchIterator<StructuredStatement>(structuredStatements);
         boolean matched = false;
@@ -239,14 +239,14 @@ public class SwitchEnumRewriter implements Op04Rewriter {
 
         WildcardMatch wcm2 = new WildcardMatch();
         // Now we've figured out what the parts of the enum are, we can do the real match...
-        Matcher<StructuredStatement> m = new ResetAfterTest(wcm1,
+        Matcher<StructuredStatement> m = new CompiledMatcher(new ResetAfterTest(wcm1,
                 new MatchSequence(
                         new StructuredAssignment(assignment.lookup, new NewPrimitiveArray(
                                 new ArrayLength(wcm1.getStaticFunction("func", enumObject.getInferredJavaType().getJavaTypeInstance(), null, "values")),
                                 RawJavaType.INT)),
                         getEnumSugarKleeneStar(assignment.lookup, enumObject, wcm2)
                 )
-        );
+        ));
 
         SwitchForeignEnumMatchResultCollector matchResultCollector = new SwitchForeignEnumMatchResultCollector(wcm2);
         matched = false;
@@ -342,14 +342,14 @@ public class SwitchEnumRewriter implements Op04Rewriter {
         WildcardMatch wcm1 = new WildcardMatch();
         WildcardMatch wcm2 = new WildcardMatch();
 
-        Matcher<StructuredStatement> m = new ResetAfterTest(wcm1,
+        Matcher<StructuredStatement> m = new CompiledMatcher(new ResetAfterTest(wcm1,
                 new MatchSequence(
                         new StructuredAssignment(lookupTable, new NewPrimitiveArray(
                                 new ArrayLength(wcm1.getStaticFunction("func", enumObject.getInferredJavaType().getJavaTypeInstance(), null, "values")),
                                 RawJavaType.INT)),
                         getEnumSugarKleeneStar(lookupTable, enumObject, wcm2)
                 )
-        );
+        ));
 
         SwitchForeignEnumMatchResultCollector matchResultCollector = new SwitchForeignEnumMatchResultCollector(wcm2);
         boolean matched = false;
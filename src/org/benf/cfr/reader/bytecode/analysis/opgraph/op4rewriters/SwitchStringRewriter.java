@@ -56,7 +56,7 @@ public class SwitchStringRewriter implements Op04Rewriter {
         WildcardMatch wcm3 = new WildcardMatch();
 
         //noinspection unchecked
-        Matcher<StructuredStatement> m = new ResetAfterTest(wcm1, "r1", new MatchSequence(
+        Matcher<StructuredStatement> m = new CompiledMatcher(new ResetAfterTest(wcm1, "r1", new MatchSequence(
                 new CollectMatch("ass1", new StructuredAssignment(wcm1.getLValueWildCard("stringobject"), wcm1.getExpressionWildCard("originalstring"))),
                 new CollectMatch("ass2", new StructuredAssignment(wcm1.getLValueWildCard("intermed"), wcm1.getExpressionWildCard("defaultintermed"))),
                 new CollectMatch("switch1",
@@ -105,7 +105,7 @@ public class SwitchStringRewriter implements Op04Rewriter {
                 // We don't actually CARE what the branches of the switch-on-intermediate are...
                 // we just want to make sure that there is one.
                 new CollectMatch("switch2", new StructuredSwitch(new LValueExpression(wcm1.getLValueWildCard("intermed")), null, wcm1.getBlockIdentifier("switchblock2")))
-        ));
+        )));
 
         SwitchStringMatchResultCollector matchResultCollector = new SwitchStringMatchResultCollector(wcm1, wcm2, wcm3);
         while (mi.hasNext()) {
@@ -21,6 +21,14 @@ public class IllegalReturnChecker implements Op04Checker {
 
     @Override
     public StructuredStatement transform(StructuredStatement in, StructuredScope scope) {
+        transformLocal(in, scope);
+        if (found) return in;
+        in.transformStructuredChildren(this, scope);
+        return in;
+    }
+
+    @Override
+    public StructuredStatement transformLocal(StructuredStatement in, StructuredScope scope) {
         if (found) return in;
         if (in instanceof Block) {
             List<Op04StructuredStatement> stms = ((Block) in).getBlockStatements();
@@ -49,7 +57,6 @@ public class IllegalReturnChecker implements Op04Checker {
             }
         }
 
-        in.transformStructuredChildren(this, scope);
         return in;
     }
 
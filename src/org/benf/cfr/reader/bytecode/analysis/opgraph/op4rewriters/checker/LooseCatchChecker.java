@@ -12,6 +12,14 @@ public class LooseCatchChecker implements Op04Checker {
 
     @Override
     public StructuredStatement transform(StructuredStatement in, StructuredScope scope) {
+        transformLocal(in, scope);
+        if (looseCatch) return in;
+        in.transformStructuredChildren(this, scope);
+        return in;
+    }
+
+    @Override
+    public StructuredStatement transformLocal(StructuredStatement in, StructuredScope scope) {
         if (looseCatch) return in;
         if (in instanceof StructuredCatch) {
             // Then we require the scope above this to be a try, otherwise it's an issue.
@@ -21,7 +29,6 @@ public class LooseCatchChecker implements Op04Checker {
                 return in;
             }
         }
-        in.transformStructuredChildren(this, scope);
         return in;
     }
 
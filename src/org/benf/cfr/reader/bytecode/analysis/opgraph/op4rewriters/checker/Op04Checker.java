@@ -1,8 +1,13 @@
 package org.benf.cfr.reader.bytecode.analysis.opgraph.op4rewriters.checker;
 
+import org.benf.cfr.reader.bytecode.analysis.opgraph.op4rewriters.transformers.LocalStructuredStatementTransformer;
 import org.benf.cfr.reader.bytecode.analysis.opgraph.op4rewriters.transformers.StructuredStatementTransformer;
 import org.benf.cfr.reader.util.DecompilerComments;
 
-public interface Op04Checker extends StructuredStatementTransformer {
+/*
+ * Checkers only look at the statement in front of them (transformLocal), and stop looking once they've found
+ * what they're after, so several can share one walk.
+ */
+public interface Op04Checker extends StructuredStatementTransformer, LocalStructuredStatementTransformer {
     void commentInto(DecompilerComments comments);
 }
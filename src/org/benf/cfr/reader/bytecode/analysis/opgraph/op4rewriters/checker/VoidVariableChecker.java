@@ -16,6 +16,14 @@ public class VoidVariableChecker implements Op04Checker {
 
     @Override
     public StructuredStatement transform(StructuredStatement in, StructuredScope scope) {
+        transformLocal(in, scope);
+        if (found) return in;
+        in.transformStructuredChildren(this, scope);
+        return in;
+    }
+
+    @Override
+    public StructuredStatement transformLocal(StructuredStatement in, StructuredScope scope) {
         if (found) return in;
         if (in instanceof StructuredDefinition) {
             InferredJavaType inferredJavaType = ((StructuredDefinition) in).getLvalue().getInferredJavaType();
@@ -25,7 +33,6 @@ public class VoidVariableChecker implements Op04Checker {
             }
         }
 
-        in.transformStructuredChildren(this, scope);
         return in;
     }
 
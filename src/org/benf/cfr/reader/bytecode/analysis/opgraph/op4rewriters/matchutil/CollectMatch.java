@@ -11,6 +11,10 @@ public class CollectMatch implements Matcher<StructuredStatement> {
         this.name = name;
     }
 
+    Matcher<StructuredStatement> getInner() {
+        return inner;
+    }
+
     @Override
     public boolean match(MatchIterator<StructuredStatement> matchIterator, MatchResultCollector matchResultCollector) {
         MatchIterator<StructuredStatement> orig = matchIterator.copy();
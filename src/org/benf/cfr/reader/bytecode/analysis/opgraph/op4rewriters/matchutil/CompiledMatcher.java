@@ -0,0 +1,138 @@
+package org.benf.cfr.reader.bytecode.analysis.opgraph.op4rewriters.matchutil;
+
+import org.benf.cfr.reader.bytecode.analysis.parse.wildcard.WildcardMatch;
+import org.benf.cfr.reader.bytecode.analysis.structured.StructuredStatement;
+import org.benf.cfr.reader.util.collections.ListFactory;
+import org.benf.cfr.reader.util.collections.MapFactory;
+import org.benf.cfr.reader.util.collections.SetFactory;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/*
+ * Wraps a matcher tree for scanning every position of a statement list.
+ *
+ * Working out up front which classes of statement the pattern can start with lets us reject most positions
+ * with one lookup, rather than copying iterators and resetting wildcards all the way down to the first leaf
+ * to find out it doesn't match.
+ *
+ * A pattern leaf (a StructuredStatement) only matches instances of its own class - so the possible starts of
+ * a pattern are the classes of the leaves it can begin with.  If it could match nothing at all, or contains a
+ * matcher we don't understand, every position is tried, as before.
+ *
+ * Positions rejected here are ones where the inner matcher would have failed at its first leaf, before
+ * binding anything - so this doesn't change what matches.  The one side effect of such a failure is that the
+ * ResetAfterTests passed through on the way to the first leaf reset their wildcards, so we do that too (once,
+ * until the inner matcher is next run).
+ */
+public class CompiledMatcher implements Matcher<StructuredStatement> {
+    private final Matcher<StructuredStatement> inner;
+    // null if any statement could start a match.
+    private final Set<Class<?>> startClasses;
+    private final List<WildcardMatch> leadingResets = ListFactory.newList();
+    private final Map<Class<?>, Boolean> canStart = MapFactory.newIdentityMap();
+    private boolean resetPending = true;
+
+    public CompiledMatcher(Matcher<StructuredStatement> inner) {
+        this.inner = inner;
+        Starts starts = getStarts(inner, leadingResets);
+        this.startClasses = (starts == null || starts.nullable) ? null : starts.classes;
+    }
+
+    @Override
+    public boolean match(MatchIterator<StructuredStatement> matchIterator, MatchResultCollector matchResultCollector) {
+        if (startClasses != null && !canStartWith(matchIterator.getCurrent())) {
+            if (resetPending) {
+                for (WildcardMatch wildcardMatch : leadingResets) {
+                    wildcardMatch.reset();
+                }
+                resetPending = false;
+            }
+            return false;
+        }
+        resetPending = true;
+        return inner.match(matchIterator, matchResultCollector);
+    }
+
+    private boolean canStartWith(StructuredStatement statement) {
+        Class<?> clazz = statement.getClass();
+        Boolean res = canStart.get(clazz);
+        if (res == null) {
+            res = false;
+            for (Class<?> start : startClasses) {
+                if (start.isAssignableFrom(clazz)) {
+                    res = true;
+                    break;
+                }
+            }
+            canStart.put(clazz, res);
+        }
+        return res;
+    }
+
+    private static class Starts {
+        private final Set<Class<?>> classes;
+        // Can this match without consuming anything?
+        private final boolean nullable;
+
+        private Starts(Set<Class<?>> classes, boolean nullable) {
+            this.classes = classes;
+            this.nullable = nullable;
+        }
+    }
+
+    /*
+     * null if we can't tell.  Any ResetAfterTest which would be run before the first leaf is tested is added to
+     * leadingResets.
+     */
+    private static Starts getStarts(Matcher<StructuredStatement> matcher, List<WildcardMatch> leadingResets) {
+        if (matcher instanceof StructuredStatement) {
+            return new Starts(SetFactory.<Class<?>>newSet(matcher.getClass()), false);
+        }
+        if (matcher instanceof CompiledMatcher) {
+            return getStarts(((CompiledMatcher) matcher).inner, leadingResets);
+        }
+        if (matcher instanceof ResetAfterTest) {
+            ResetAfterTest resetAfterTest = (ResetAfterTest) matcher;
+            leadingResets.add(resetAfterTest.getWildcardMatch());
+            return getStarts(resetAfterTest.getInner(), leadingResets);
+        }
+        if (matcher instanceof CollectMatch) {
+            return getStarts(((CollectMatch) matcher).getInner(), leadingResets);
+        }
+        if (matcher instanceof MatchOpt) {
+            Starts inner = getStarts(((MatchOpt) matcher).getMatcher(), leadingResets);
+            if (inner == null) return null;
+            return new Starts(inner.classes, true);
+        }
+        if (matcher instanceof KleeneN) {
+            KleeneN kleeneN = (KleeneN) matcher;
+            Starts inner = getStarts(kleeneN.getInner(), leadingResets);
+            if (inner == null) return null;
+            return new Starts(inner.classes, inner.nullable || kleeneN.getNRequired() == 0);
+        }
+        if (matcher instanceof MatchSequence) {
+            Set<Class<?>> classes = SetFactory.newSet();
+            for (Matcher<StructuredStatement> item : ((MatchSequence) matcher).getInner()) {
+                Starts starts = getStarts(item, leadingResets);
+                if (starts == null) return null;
+                classes.addAll(starts.classes);
+                if (!starts.nullable) return new Starts(classes, false);
+            }
+            return new Starts(classes, true);
+        }
+        if (matcher instanceof MatchOneOf) {
+            Set<Class<?>> classes = SetFactory.newSet();
+            boolean nullable = false;
+            for (Matcher<StructuredStatement> item : ((MatchOneOf) matcher).getMatchers()) {
+                Starts starts = getStarts(item, leadingResets);
+                if (starts == null) return null;
+                classes.addAll(starts.classes);
+                nullable |= starts.nullable;
+            }
+            return new Starts(classes, nullable);
+        }
+        return null;
+    }
+}
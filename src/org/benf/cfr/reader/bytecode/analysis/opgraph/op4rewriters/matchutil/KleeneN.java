@@ -16,6 +16,14 @@ public class KleeneN implements Matcher<StructuredStatement> {
         this.nRequired = nRequired;
     }
 
+    Matcher<StructuredStatement> getInner() {
+        return inner;
+    }
+
+    int getNRequired() {
+        return nRequired;
+    }
+
     @Override
     public boolean match(MatchIterator<StructuredStatement> matchIterator, MatchResultCollector matchResultCollector) {
         MatchIterator<StructuredStatement> mi = matchIterator.copy();
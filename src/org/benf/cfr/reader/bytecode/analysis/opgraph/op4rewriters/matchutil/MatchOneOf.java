@@ -13,6 +13,10 @@ public class MatchOneOf implements Matcher<StructuredStatement> {
         this.matchers = matchers;
     }
 
+    Matcher<StructuredStatement>[] getMatchers() {
+        return matchers;
+    }
+
     @Override
     public boolean match(MatchIterator<StructuredStatement> matchIterator, MatchResultCollector matchResultCollector) {
 
@@ -13,6 +13,10 @@ public class MatchOpt implements Matcher<StructuredStatement> {
         this.matcher = matcher;
     }
 
+    Matcher<StructuredStatement> getMatcher() {
+        return matcher;
+    }
+
     @Override
     public boolean match(MatchIterator<StructuredStatement> matchIterator, MatchResultCollector matchResultCollector) {
         MatchIterator<StructuredStatement> mi = matchIterator.copy();
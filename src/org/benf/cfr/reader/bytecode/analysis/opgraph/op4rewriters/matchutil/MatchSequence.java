@@ -18,6 +18,10 @@ public class MatchSequence implements Matcher<StructuredStatement> {
         this.name = name;
     }
 
+    Matcher<StructuredStatement>[] getInner() {
+        return inner;
+    }
+
     @Override
     public boolean match(MatchIterator<StructuredStatement> matchIterator, MatchResultCollector matchResultCollector) {
         MatchIterator<StructuredStatement> mi = matchIterator.copy();
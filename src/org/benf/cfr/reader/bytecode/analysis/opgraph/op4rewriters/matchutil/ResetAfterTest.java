@@ -18,6 +18,14 @@ public class ResetAfterTest implements Matcher<StructuredStatement> {
         this.name = name;
     }
 
+    Matcher<StructuredStatement> getInner() {
+        return inner;
+    }
+
+    WildcardMatch getWildcardMatch() {
+        return wildcardMatch;
+    }
+
     @Override
     public boolean match(MatchIterator<StructuredStatement> matchIterator, MatchResultCollector matchResultCollector) {
         boolean result = inner.match(matchIterator, matchResultCollector);
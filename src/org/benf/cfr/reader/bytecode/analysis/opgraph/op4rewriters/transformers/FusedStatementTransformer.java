@@ -0,0 +1,51 @@
+package org.benf.cfr.reader.bytecode.analysis.opgraph.op4rewriters.transformers;
+
+import org.benf.cfr.reader.bytecode.analysis.opgraph.Op04StructuredStatement;
+import org.benf.cfr.reader.bytecode.analysis.structured.StructuredScope;
+import org.benf.cfr.reader.bytecode.analysis.structured.StructuredStatement;
+import org.benf.cfr.reader.util.collections.ListFactory;
+
+import java.util.List;
+
+/*
+ * Runs several local transformers in one walk of the tree, rather than one walk each.
+ *
+ * Transformers are applied to each statement in the order given, either before its children are visited
+ * (as ExpressionRewriterTransformer does), or after (as most keyhole cleaners do).  This gives the same result
+ * as running them one after another, as long as each only depends on the statement in front of it.
+ */
+public class FusedStatementTransformer implements StructuredStatementTransformer {
+    private final List<LocalStructuredStatementTransformer> before;
+    private final List<LocalStructuredStatementTransformer> after;
+
+    private FusedStatementTransformer(List<LocalStructuredStatementTransformer> before, List<LocalStructuredStatementTransformer> after) {
+        this.before = before;
+        this.after = after;
+    }
+
+    public static FusedStatementTransformer preOrder(List<LocalStructuredStatementTransformer> transformers) {
+        return new FusedStatementTransformer(transformers, ListFactory.<LocalStructuredStatementTransformer>newList());
+    }
+
+    public static FusedStatementTransformer postOrder(List<LocalStructuredStatementTransformer> transformers) {
+        return new FusedStatementTransformer(ListFactory.<LocalStructuredStatementTransformer>newList(), transformers);
+    }
+
+    public void transform(Op04StructuredStatement root) {
+        if (before.isEmpty() && after.isEmpty()) return;
+        StructuredScope structuredScope = new StructuredScope();
+        root.transform(this, structuredScope);
+    }
+
+    @Override
+    public StructuredStatement transform(StructuredStatement in, StructuredScope scope) {
+        for (LocalStructuredStatementTransformer transformer : before) {
+            in = transformer.transformLocal(in, scope);
+        }
+        in.transformStructuredChildren(this, scope);
+        for (LocalStructuredStatementTransformer transformer : after) {
+            in = transformer.transformLocal(in, scope);
+        }
+        return in;
+    }
+}
@@ -15,7 +15,7 @@ import org.benf.cfr.reader.bytecode.analysis.types.RawJavaType;
 import org.benf.cfr.reader.bytecode.analysis.types.StackType;
 import org.benf.cfr.reader.bytecode.analysis.types.discovery.InferredJavaType;
 
-public class InvalidBooleanCastCleaner extends AbstractExpressionRewriter implements StructuredStatementTransformer {
+public class InvalidBooleanCastCleaner extends AbstractExpressionRewriter implements StructuredStatementTransformer, LocalStructuredStatementTransformer {
 
     public void transform(Op04StructuredStatement root) {
         StructuredScope structuredScope = new StructuredScope();
@@ -25,6 +25,11 @@ public class InvalidBooleanCastCleaner extends AbstractExpressionRewriter implem
     @Override
     public StructuredStatement transform(StructuredStatement in, StructuredScope scope) {
         in.transformStructuredChildren(this, scope);
+        return transformLocal(in, scope);
+    }
+
+    @Override
+    public StructuredStatement transformLocal(StructuredStatement in, StructuredScope scope) {
         in.rewriteExpressions(this);
         return in;
     }
@@ -17,7 +17,7 @@ import org.benf.cfr.reader.bytecode.analysis.structured.statement.StructuredRetu
 
 import java.util.LinkedList;
 
-public class LambdaCleaner extends AbstractExpressionRewriter implements StructuredStatementTransformer {
+public class LambdaCleaner extends AbstractExpressionRewriter implements StructuredStatementTransformer, LocalStructuredStatementTransformer {
 
     public void transform(Op04StructuredStatement root) {
         StructuredScope structuredScope = new StructuredScope();
@@ -27,6 +27,11 @@ public class LambdaCleaner extends AbstractExpressionRewriter implements Structu
     @Override
     public StructuredStatement transform(StructuredStatement in, StructuredScope scope) {
         in.transformStructuredChildren(this, scope);
+        return transformLocal(in, scope);
+    }
+
+    @Override
+    public StructuredStatement transformLocal(StructuredStatement in, StructuredScope scope) {
         in.rewriteExpressions(this);
         return in;
     }
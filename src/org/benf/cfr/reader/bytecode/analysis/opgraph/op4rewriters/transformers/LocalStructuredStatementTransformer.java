@@ -0,0 +1,15 @@
+package org.benf.cfr.reader.bytecode.analysis.opgraph.op4rewriters.transformers;
+
+import org.benf.cfr.reader.bytecode.analysis.structured.StructuredScope;
+import org.benf.cfr.reader.bytecode.analysis.structured.StructuredStatement;
+
+/*
+ * The work a transformer does at a single statement, leaving the walk over its children to the caller - so that
+ * several of these can share one walk of the tree.  See FusedStatementTransformer.
+ *
+ * This must only look at (and rewrite) the statement it's given - if it needs to see what a previous pass did
+ * elsewhere in the tree, it can't be fused with that pass.
+ */
+public interface LocalStructuredStatementTransformer {
+    StructuredStatement transformLocal(StructuredStatement in, StructuredScope scope);
+}
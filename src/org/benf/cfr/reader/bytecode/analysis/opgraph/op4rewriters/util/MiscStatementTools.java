@@ -5,7 +5,6 @@ import org.benf.cfr.reader.bytecode.analysis.parse.rewriters.ExpressionRewriter;
 import org.benf.cfr.reader.bytecode.analysis.structured.StructuredStatement;
 import org.benf.cfr.reader.bytecode.analysis.structured.statement.Block;
 import org.benf.cfr.reader.bytecode.analysis.structured.statement.StructuredComment;
-import org.benf.cfr.reader.util.collections.ListFactory;
 import org.benf.cfr.reader.util.annotation.Nullable;
 
 import java.util.List;
@@ -31,15 +30,9 @@ public class MiscStatementTools {
 
     public static @Nullable
     List<StructuredStatement> linearise(Op04StructuredStatement root) {
-        List<StructuredStatement> structuredStatements = ListFactory.newList();
-        try {
-            // This is being done multiple times, it's very inefficient!
-            root.linearizeStatementsInto(structuredStatements);
-        } catch (UnsupportedOperationException e) {
-            // Todo : Should output something at the end about this failure.
-            return null;
-        }
-        return structuredStatements;
+        // This is done multiple times - but is only rebuilt if something has changed in between.
+        // Todo : Should output something at the end about a failure.
+        return root.getLinearisedStatements();
     }
 
     public static void applyExpressionRewriter(Op04StructuredStatement root, ExpressionRewriter expressionRewriter) {
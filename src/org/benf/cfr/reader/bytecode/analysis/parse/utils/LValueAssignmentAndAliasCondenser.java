@@ -19,34 +19,66 @@ import org.benf.cfr.reader.util.collections.SetFactory;
 import org.benf.cfr.reader.util.collections.SetUtil;
 import org.benf.cfr.reader.util.functors.UnaryFunction;
 
+import java.util.Arrays;
+import java.util.BitSet;
 import java.util.Collection;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
 
 public class LValueAssignmentAndAliasCondenser implements LValueRewriter<Statement>, LValueAssignmentCollector<Statement> {
-    //
-    // Found states that key can be replaced with value.
-    //
-    private final Map<StackSSALabel, ExpressionStatement> found;
-    private final Set<StackSSALabel> blacklisted;
-    private final Set<LValue> keepConstant;
+    /*
+     * Everything we know about a given stack label, indexed by its interned id.  Shared (not copied)
+     * by the keepConstant variants of this condenser.
+     */
+    private static class LabelTable {
+        private final LValueInterner interner;
+        //
+        // Found states that key can be replaced with value.
+        //
+        private ExpressionStatement[] found = new ExpressionStatement[16];
+        private final BitSet blacklisted = new BitSet();
+        //
+        // A chain of dup, copy assign can be considered to be an alias set.
+        // we can replace references to subsequent temporaries with references to the first LValue.
+        //
+        private Expression[] aliasReplacements = new Expression[16];
+        // When we know that this value is being used multiple times.
+        // Maybe we can convert
+        // v10 = 1+1
+        // c = v10
+        // d = v10
+        // into
+        // c = 1+1
+        // d = c
+        private ExpressionStatement[] multiFound = new ExpressionStatement[16];
+
+        private LabelTable(LValueInterner interner) {
+            this.interner = interner;
+        }
+
+        private int intern(StackSSALabel label) {
+            int id = interner.intern(label);
+            if (id >= found.length) {
+                int size = Math.max(id + 1, found.length * 2);
+                found = Arrays.copyOf(found, size);
+                aliasReplacements = Arrays.copyOf(aliasReplacements, size);
+                multiFound = Arrays.copyOf(multiFound, size);
+            }
+            return id;
+        }
 
-    //
-    // A chain of dup, copy assign can be considered to be an alias set.
-    // we can replace references to subsequent temporaries with references to the first LValue.
-    //
-    private final Map<StackSSALabel, Expression> aliasReplacements;
-
-    // When we know that this value is being used multiple times.
-    // Maybe we can convert
-    // v10 = 1+1
-    // c = v10
-    // d = v10
-    // into
-    // c = 1+1
-    // d = c
-    private final Map<StackSSALabel, ExpressionStatement> multiFound;
+        /*
+         * -1 if we've nothing recorded against this lvalue (or it's not a stack label at all).
+         */
+        private int find(LValue lValue) {
+            int id = interner.find(lValue);
+            return id < found.length ? id : -1;
+        }
+    }
+
+    private final LabelTable labels;
+    private final Set<LValue> keepConstant;
 
     //
     // When we're EXPLICITLY being told that this NON SSA value can be moved to later in the
@@ -55,38 +87,41 @@ public class LValueAssignmentAndAliasCondenser implements LValueRewriter<Stateme
     private final Map<VersionedLValue, ExpressionStatement> mutableFound;
 
     public LValueAssignmentAndAliasCondenser() {
-        found = MapFactory.newOrderedMap();
-        blacklisted = SetFactory.newOrderedSet();
+        this(new LValueInterner());
+    }
+
+    /*
+     * Condensers over the same method may share an interner, so repeated passes don't re-hash every lvalue.
+     */
+    public LValueAssignmentAndAliasCondenser(LValueInterner interner) {
+        labels = new LabelTable(interner);
         keepConstant = SetFactory.newSet();
-        aliasReplacements = MapFactory.newMap();
-        multiFound = MapFactory.newMap();
         mutableFound = MapFactory.newMap();
     }
 
     public LValueAssignmentAndAliasCondenser(LValueAssignmentAndAliasCondenser other, Set<LValue> keepConstant) {
         this.keepConstant = keepConstant;
-        this.found = other.found;
-        this.blacklisted = other.blacklisted;
-        this.aliasReplacements = other.aliasReplacements;
-        this.multiFound = other.multiFound;
+        this.labels = other.labels;
         this.mutableFound = other.mutableFound;
     }
 
     @Override
     public void collect(StackSSALabel lValue, StatementContainer<Statement> statementContainer, Expression value) {
-        found.put(lValue, new ExpressionStatement(value, statementContainer));
+        int id = labels.intern(lValue);
+        labels.found[id] = new ExpressionStatement(value, statementContainer);
     }
 
     @Override
     public void collectMultiUse(StackSSALabel lValue, StatementContainer<Statement> statementContainer, Expression value) {
-        multiFound.put(lValue, new ExpressionStatement(value, statementContainer));
+        int id = labels.intern(lValue);
+        labels.multiFound[id] = new ExpressionStatement(value, statementContainer);
     }
 
     @Override
     public void collectMutatedLValue(LValue lValue, StatementContainer<Statement> statementContainer, Expression value) {
         //noinspection unchecked
         SSAIdent version = statementContainer.getSSAIdentifiers().getSSAIdentOnExit(lValue);
-        if (null != mutableFound.put(new VersionedLValue(lValue, version), new ExpressionStatement(value, statementContainer))) {
+        if (null != mutableFound.put(new VersionedLValue(labels.interner.intern(lValue), version), new ExpressionStatement(value, statementContainer))) {
             throw new ConfusedCFRException("Duplicate versioned SSA Ident.");
         }
     }
@@ -137,11 +172,13 @@ public class LValueAssignmentAndAliasCondenser implements LValueRewriter<Stateme
 
         StackSSALabel stackSSALabel = (StackSSALabel) lValue;
 
-        if (!found.containsKey(stackSSALabel)) return null;
-        if (blacklisted.contains(stackSSALabel)) {
+        int id = labels.find(stackSSALabel);
+        if (id == -1) return null;
+        ExpressionStatement pair = labels.found[id];
+        if (pair == null) return null;
+        if (labels.blacklisted.get(id)) {
             return null;
         }
-        ExpressionStatement pair = found.get(stackSSALabel);
         // res is a valid replacement for lValue in an rValue, IF no mutable fields have different version
         // identifiers (SSA tags)
         StatementContainer<Statement> statementContainer = pair.statementContainer;
@@ -224,9 +261,10 @@ public class LValueAssignmentAndAliasCondenser implements LValueRewriter<Stateme
             statementContainer.nopOut();
         }
         stackSSALabel.getStackEntry().decrementUsage();
-        if (aliasReplacements.containsKey(stackSSALabel)) {
-            found.put(stackSSALabel, new ExpressionStatement(aliasReplacements.get(stackSSALabel), null));
-            aliasReplacements.remove(stackSSALabel);
+        Expression aliasReplacement = labels.aliasReplacements[id];
+        if (aliasReplacement != null) {
+            labels.found[id] = new ExpressionStatement(aliasReplacement, null);
+            labels.aliasReplacements[id] = null;
         }
 
 
@@ -273,11 +311,13 @@ public class LValueAssignmentAndAliasCondenser implements LValueRewriter<Stateme
     public void checkPostConditions(LValue lValue, Expression rValue) {
         if (!(lValue instanceof StackSSALabel)) return;
         StackSSALabel label = (StackSSALabel)lValue;
-        if (aliasReplacements.containsKey(label)) return;
-        if (!(found.containsKey(label))) return;
+        int id = labels.find(label);
+        if (id == -1) return;
+        if (labels.aliasReplacements[id] != null) return;
+        if (labels.found[id] == null) return;
         long count = label.getStackEntry().getUsageCount();
         if (count > 1 && !rValue.isSimple()) {
-            blacklisted.add(label);
+            labels.blacklisted.set(id);
         }
     }
 
@@ -301,22 +341,19 @@ public class LValueAssignmentAndAliasCondenser implements LValueRewriter<Stateme
     }
 
     public class AliasRewriter implements LValueRewriter<Statement> {
-        private final Map<StackSSALabel, List<StatementContainer<Statement>>> usages = MapFactory.newLazyMap(
-                new UnaryFunction<StackSSALabel, List<StatementContainer<Statement>>>() {
-                    @Override
-                    public List<StatementContainer<Statement>> invoke(StackSSALabel ignore) {
-                        return ListFactory.newList();
-                    }
-                }
-        );
-        private final Map<StackSSALabel, List<LValueStatementContainer>> possibleAliases = MapFactory.newLazyMap(
-                new UnaryFunction<StackSSALabel, List<LValueStatementContainer>>() {
-                    @Override
-                    public List<LValueStatementContainer> invoke(StackSSALabel ignore) {
-                        return ListFactory.newList();
-                    }
-                }
-        );
+        // Both by label id - only labels with a multiFound entry ever get a list.
+        private final List<List<StatementContainer<Statement>>> usages = ListFactory.newList();
+        private final List<List<LValueStatementContainer>> possibleAliases = ListFactory.newList();
+
+        private <T> List<T> getList(List<List<T>> lists, int id) {
+            while (lists.size() <= id) lists.add(null);
+            List<T> res = lists.get(id);
+            if (res == null) {
+                res = ListFactory.newList();
+                lists.set(id, res);
+            }
+            return res;
+        }
 
         @Override
         public LValueRewriter getWithFixed(Set<SSAIdent> fixed) {
@@ -338,7 +375,8 @@ public class LValueAssignmentAndAliasCondenser implements LValueRewriter<Stateme
             if (!(lValue instanceof StackSSALabel)) return null;
             StackSSALabel stackSSALabel = (StackSSALabel) lValue;
 
-            if (!multiFound.containsKey(lValue)) return null;
+            int id = labels.find(stackSSALabel);
+            if (id == -1 || labels.multiFound[id] == null) return null;
             /* If it's an assignment, then put it in the 'possible alias'
              * list.
              */
@@ -347,16 +385,16 @@ public class LValueAssignmentAndAliasCondenser implements LValueRewriter<Stateme
                 Expression rhs = assignmentSimple.getRValue();
                 if (rhs instanceof StackValue) {
                     if (((StackValue) rhs).getStackValue().equals(stackSSALabel)) {
-                        possibleAliases.get(stackSSALabel).add(new LValueStatementContainer(assignmentSimple.getCreatedLValue(), statementContainer));
+                        getList(possibleAliases, id).add(new LValueStatementContainer(assignmentSimple.getCreatedLValue(), statementContainer));
                     }
                 } else if (stackSSALabel.getInferredJavaType().getJavaTypeInstance() instanceof JavaArrayTypeInstance) {
-                    ExpressionStatement es = multiFound.get(stackSSALabel);
+                    ExpressionStatement es = labels.multiFound[id];
                     if (es != null && es.expression instanceof LValueExpression) {
-                        possibleAliases.get(stackSSALabel).add(new LValueStatementContainer(((LValueExpression) es.expression).getLValue(), statementContainer));
+                        getList(possibleAliases, id).add(new LValueStatementContainer(((LValueExpression) es.expression).getLValue(), statementContainer));
                     }
                 }
             }
-            usages.get(stackSSALabel).add(statementContainer);
+            getList(usages, id).add(statementContainer);
             return null;
         }
 
@@ -364,8 +402,8 @@ public class LValueAssignmentAndAliasCondenser implements LValueRewriter<Stateme
          * If all the others, when used, can be seen to be at the same version as the first one.
          * (the first one which is NOT a stackSSALabel)
          */
-        private LValue getAlias(StackSSALabel stackSSALabel, ExpressionStatement target) {
-            List<LValueStatementContainer> possibleAliasList = possibleAliases.get(stackSSALabel);
+        private LValue getAlias(int id, StackSSALabel stackSSALabel, ExpressionStatement target) {
+            List<LValueStatementContainer> possibleAliasList = getList(possibleAliases, id);
             if (possibleAliasList.isEmpty()) return null;
             LValue guessAlias = null;
             StatementContainer guessStatement = null;
@@ -378,7 +416,7 @@ public class LValueAssignmentAndAliasCondenser implements LValueRewriter<Stateme
             }
             if (guessAlias == null) {
                 if (stackSSALabel.getInferredJavaType().getJavaTypeInstance() instanceof JavaArrayTypeInstance) {
-                    ExpressionStatement mf = multiFound.get(stackSSALabel);
+                    ExpressionStatement mf = labels.multiFound[id];
                     if (mf != null && mf.expression instanceof LValueExpression) {
                         guessAlias = ((LValueExpression) mf.expression).getLValue();
                         guessStatement = mf.statementContainer;
@@ -412,7 +450,7 @@ public class LValueAssignmentAndAliasCondenser implements LValueRewriter<Stateme
             } else {
                 checkThese.add(guessAlias);
             }
-            for (StatementContainer<Statement> verifyStatement : usages.get(stackSSALabel)) {
+            for (StatementContainer<Statement> verifyStatement : getList(usages, id)) {
                 /*
                  * verify that 'guessAlias' is the same version in verifyStatement
                  * as it is in guessStatement.
@@ -433,19 +471,25 @@ public class LValueAssignmentAndAliasCondenser implements LValueRewriter<Stateme
             return returnGuessAlias;
         }
 
+        /*
+         * Each label is considered independently, so the order we walk them in doesn't matter.
+         */
         public void inferAliases() {
-            for (Map.Entry<StackSSALabel, ExpressionStatement> multi : multiFound.entrySet()) {
+            ExpressionStatement[] multiFound = labels.multiFound;
+            for (int id = 0; id < multiFound.length; ++id) {
+                ExpressionStatement multi = multiFound[id];
+                if (multi == null) continue;
                 /*
                  * How many aliases does this have?
                  */
-                StackSSALabel stackSSALabel = multi.getKey();
-                LValue alias = getAlias(stackSSALabel, multi.getValue());
+                StackSSALabel stackSSALabel = (StackSSALabel) labels.interner.get(id);
+                LValue alias = getAlias(id, stackSSALabel, multi);
                 if (alias != null) {
                     /* The assignment between stackSSAlabel and alias can be elided, and
                      * referenced to stackSSALabel can be replaced with references to alias.
                      */
-                    found.put(stackSSALabel, multi.getValue());
-                    aliasReplacements.put(stackSSALabel, new LValueExpression(alias));
+                    labels.found[id] = multi;
+                    labels.aliasReplacements[id] = new LValueExpression(alias);
                 }
             }
         }
@@ -480,8 +524,9 @@ public class LValueAssignmentAndAliasCondenser implements LValueRewriter<Stateme
         @Override
         public Expression getLValueReplacement(LValue lValue, SSAIdentifiers<LValue> ssaIdentifiers, StatementContainer<Statement> statementContainer) {
             SSAIdent ssaIdent = ssaIdentifiers.getSSAIdentOnExit(lValue);
-            if (ssaIdent != null) {
-                VersionedLValue versionedLValue = new VersionedLValue(lValue, ssaIdent);
+            int id = labels.interner.find(lValue);
+            if (ssaIdent != null && id != -1) {
+                VersionedLValue versionedLValue = new VersionedLValue(id, ssaIdent);
                 if (mutableFound.containsKey(versionedLValue)) {
                     // Note a use of this @ statementContainer.
                     mutableUseFound.get(versionedLValue).add(statementContainer);
@@ -590,8 +635,9 @@ public class LValueAssignmentAndAliasCondenser implements LValueRewriter<Stateme
         @Override
         public Expression getLValueReplacement(LValue lValue, SSAIdentifiers<LValue> ssaIdentifiers, StatementContainer<Statement> statementContainer) {
             SSAIdent ssaIdent = ssaIdentifiers.getSSAIdentOnExit(lValue);
-            if (ssaIdent != null) {
-                VersionedLValue versionedLValue = new VersionedLValue(lValue, ssaIdent);
+            int id = labels.interner.find(lValue);
+            if (ssaIdent != null && id != -1) {
+                VersionedLValue versionedLValue = new VersionedLValue(id, ssaIdent);
                 StatementContainer canReplaceIn = mutableReplacable.get(versionedLValue);
                 if (canReplaceIn == statementContainer) {
                     ExpressionStatement replaceWith = mutableFound.get(versionedLValue);
@@ -651,18 +697,19 @@ public class LValueAssignmentAndAliasCondenser implements LValueRewriter<Stateme
         }
     }
 
+    // lvalue by interned id, so hashing / comparing these doesn't go anywhere near the lvalue itself.
     private final static class VersionedLValue {
-        private final LValue lValue;
+        private final int lValueId;
         private final SSAIdent ssaIdent;
 
-        private VersionedLValue(LValue lValue, SSAIdent ssaIdent) {
-            this.lValue = lValue;
+        private VersionedLValue(int lValueId, SSAIdent ssaIdent) {
+            this.lValueId = lValueId;
             this.ssaIdent = ssaIdent;
         }
 
         @Override
         public int hashCode() {
-            return lValue.hashCode() + 31 * ssaIdent.hashCode();
+            return lValueId + 31 * ssaIdent.hashCode();
         }
 
         @Override
@@ -671,7 +718,7 @@ public class LValueAssignmentAndAliasCondenser implements LValueRewriter<Stateme
             if (!(o instanceof VersionedLValue)) return false;
 
             VersionedLValue other = (VersionedLValue) o;
-            return lValue.equals(other.lValue) &&
+            return lValueId == other.lValueId &&
                     ssaIdent.equals(other.ssaIdent);
         }
     }
@@ -0,0 +1,58 @@
+package org.benf.cfr.reader.bytecode.analysis.parse.utils;
+
+import org.benf.cfr.reader.bytecode.analysis.parse.LValue;
+import org.benf.cfr.reader.util.collections.ListFactory;
+import org.benf.cfr.reader.util.collections.MapFactory;
+
+import java.util.List;
+import java.util.Map;
+
+/*
+ * Hands out small dense ids for LValues, so per-lvalue state can live in arrays rather than a map per
+ * property.
+ *
+ * An lvalue object we haven't seen before gets the id of an equal one (by its equals/hashCode, including
+ * FieldVariable's identity hash), or a new id if there's none.  After that the object is found by identity,
+ * which skips the (sometimes expensive) structural hash and equals - so an lvalue which is mutated after we
+ * first see it keeps the id it had then, where a HashMap would no longer find it.
+ *
+ * An interner lives for one LValueProp.condenseLValues call.
+ */
+public class LValueInterner {
+    private final Map<LValue, Integer> byIdentity = MapFactory.newIdentityMap();
+    private final Map<LValue, Integer> byValue = MapFactory.newMap();
+    private final List<LValue> lValues = ListFactory.newList();
+
+    public int intern(LValue lValue) {
+        Integer id = byIdentity.get(lValue);
+        if (id != null) return id;
+        id = byValue.get(lValue);
+        if (id == null) {
+            id = lValues.size();
+            lValues.add(lValue);
+            byValue.put(lValue, id);
+        }
+        byIdentity.put(lValue, id);
+        return id;
+    }
+
+    /*
+     * As intern, but doesn't allocate an id for an lvalue we've never seen.
+     */
+    public int find(LValue lValue) {
+        Integer id = byIdentity.get(lValue);
+        if (id != null) return id;
+        id = byValue.get(lValue);
+        if (id == null) return -1;
+        byIdentity.put(lValue, id);
+        return id;
+    }
+
+    public LValue get(int id) {
+        return lValues.get(id);
+    }
+
+    public int size() {
+        return lValues.size();
+    }
+}
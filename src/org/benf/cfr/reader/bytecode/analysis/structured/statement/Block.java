@@ -52,6 +52,7 @@ public class Block extends AbstractStructuredStatement {
     }
 
     public void flattenOthersIn() {
+        Op04StructuredStatement.noteStructureChange();
         ListIterator<Op04StructuredStatement> iter = containedStatements.listIterator();
         while (iter.hasNext()) {
             Op04StructuredStatement item = iter.next();
@@ -71,6 +72,7 @@ public class Block extends AbstractStructuredStatement {
     }
 
     public void addStatement(Op04StructuredStatement stm) {
+        Op04StructuredStatement.noteStructureChange();
         if (containedStatements == emptyBlockStatements) {
             containedStatements = new LinkedList<Op04StructuredStatement>();
         }
@@ -208,6 +210,7 @@ public class Block extends AbstractStructuredStatement {
             }
         }
         if (!inline) return;
+        Op04StructuredStatement.noteStructureChange();
         LinkedList<Op04StructuredStatement> newContained = ListFactory.newLinkedList();
         for (Op04StructuredStatement in : containedStatements) {
             StructuredStatement s = in.getStatement();
@@ -238,6 +241,7 @@ public class Block extends AbstractStructuredStatement {
     }
 
     public void extractLabelledBlocks() {
+        Op04StructuredStatement.noteStructureChange();
         Iterator<Op04StructuredStatement> iterator = containedStatements.descendingIterator();
         List<Op04StructuredStatement> newEntries = ListFactory.newList();
         while (iterator.hasNext()) {
@@ -302,6 +306,7 @@ public class Block extends AbstractStructuredStatement {
     }
 
     public void combineTryCatch() {
+        Op04StructuredStatement.noteStructureChange();
 
         Set<Class<?>> skipThese = SetFactory.<Class<?>>newSet(
                 StructuredCatch.class,
@@ -472,7 +477,11 @@ public class Block extends AbstractStructuredStatement {
         return true;
     }
 
+    /*
+     * This is the live list - as callers may change it, we have to assume they do.
+     */
     public List<Op04StructuredStatement> getBlockStatements() {
+        Op04StructuredStatement.noteStructureChange();
         return containedStatements;
     }
 
@@ -501,6 +510,7 @@ public class Block extends AbstractStructuredStatement {
      */
     @Override
     public void markCreator(LValue scopedEntity, StatementContainer<StructuredStatement> hint) {
+        Op04StructuredStatement.noteStructureChange();
         Op04StructuredStatement declaration = new Op04StructuredStatement(new StructuredDefinition(scopedEntity));
         if (hint != null) {
             //noinspection SuspiciousMethodCalls - we know this is op04
@@ -149,6 +149,7 @@ public class StructuredIf extends AbstractStructuredStatement implements CanRemo
     @Override
     public void removePointlessBlocks(StructuredScope scope) {
         if (elseBlock != null && elseBlock.getStatement().isEffectivelyNOP()) {
+            Op04StructuredStatement.noteStructureChange();
             elseBlock = null;
         }
     }
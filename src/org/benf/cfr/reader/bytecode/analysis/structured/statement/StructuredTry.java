@@ -30,11 +30,13 @@ public class StructuredTry extends AbstractStructuredStatement {
     }
 
     public void addResources(List<Op04StructuredStatement> resources) {
+        Op04StructuredStatement.noteStructureChange();
         if (resourceBlock == null) resourceBlock = ListFactory.newList();
         resourceBlock.addAll(resources);
     }
 
     public List<Op04StructuredStatement> getResources() {
+        Op04StructuredStatement.noteStructureChange();
         return resourceBlock;
     }
 
@@ -48,10 +50,12 @@ public class StructuredTry extends AbstractStructuredStatement {
     }
 
     public List<Op04StructuredStatement> getCatchBlocks() {
+        Op04StructuredStatement.noteStructureChange();
         return catchBlocks;
     }
 
     public void clearCatchBlocks() {
+        Op04StructuredStatement.noteStructureChange();
         catchBlocks.clear();
     }
 
@@ -98,10 +102,12 @@ public class StructuredTry extends AbstractStructuredStatement {
     }
 
     void addCatch(Op04StructuredStatement catchStatement) {
+        Op04StructuredStatement.noteStructureChange();
         catchBlocks.add(catchStatement);
     }
 
     public void setFinally(Op04StructuredStatement finallyBlock) {
+        Op04StructuredStatement.noteStructureChange();
         this.finallyBlock = finallyBlock;
     }
 
@@ -244,6 +250,7 @@ public class StructuredTry extends AbstractStructuredStatement {
     }
 
     public void setTryBlock(Op04StructuredStatement tryBlock) {
+        Op04StructuredStatement.noteStructureChange();
         this.tryBlock = tryBlock;
     }
 }
@@ -54,6 +54,7 @@ public class UnstructuredIf extends AbstractUnStructuredStatement {
                 Op04StructuredStatement fakeElseBlock = new Op04StructuredStatement(new Block(fakeBlockContent, true));
                 return new StructuredIf(ConditionalUtils.simplify(conditionalExpression.getNegated()), innerBlock, fakeElseBlock);
             } else {
+                Op04StructuredStatement.noteStructureChange();
                 setIfBlock = innerBlock;
                 return this;
             }
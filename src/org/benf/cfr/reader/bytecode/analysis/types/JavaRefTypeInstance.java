@@ -15,6 +15,7 @@ import org.benf.cfr.reader.util.collections.MapFactory;
 import org.benf.cfr.reader.util.output.Dumper;
 import org.benf.cfr.reader.util.output.ToStringDumper;
 
+import java.util.Collections;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
@@ -286,7 +287,15 @@ public class JavaRefTypeInstance implements JavaTypeInstance {
 
     @Override
     public BindingSuperContainer getBindingSupers() {
-        if (cachedBindingSupers != BindingSuperContainer.POISON) return cachedBindingSupers;
+        if (cachedBindingSupers != BindingSuperContainer.POISON) {
+            // As ClassFile.getBindingSupers, note where a cached answer came from (if nowhere, it's that we
+            // couldn't load this).
+            if (dcCommonState != null) {
+                dcCommonState.noteUse(cachedBindingSupers == null ?
+                        Collections.singletonList(this) : cachedBindingSupers.getBoundSuperClasses().keySet());
+            }
+            return cachedBindingSupers;
+        }
         try {
             ClassFile classFile = getClassFile();
             cachedBindingSupers = classFile == null ? null : classFile.getBindingSupers();
@@ -420,24 +420,36 @@ public class InferredJavaType {
 
     }
 
+    /*
+     * Remove any types which are (strict) supers of another remaining type.
+     *
+     * Types are considered in order, and one which has already been removed can't remove anything else - so
+     * in a (broken) circular hierarchy, the earlier type wins.
+     */
     private static List<JavaTypeInstance> getMostDerivedType(Set<JavaTypeInstance> types) {
         List<JavaTypeInstance> poss = ListFactory.newList(types);
-        boolean effect;
-        do {
-            effect = false;
-            for (JavaTypeInstance pos : poss) {
-                BindingSuperContainer superContainer = pos.getBindingSupers();
-                if (superContainer == null) continue;
-                Set<? extends JavaTypeInstance> supers = SetFactory.newSet(superContainer.getBoundSuperClasses().keySet());
-                // but don't remove the actual type.
-                supers.remove(pos);
-                if (poss.removeAll(supers)) {
+        int size = poss.size();
+        boolean[] removed = new boolean[size];
+        boolean effect = false;
+        for (int x = 0; x < size; ++x) {
+            if (removed[x]) continue;
+            BindingSuperContainer superContainer = poss.get(x).getBindingSupers();
+            if (superContainer == null) continue;
+            Map<JavaRefTypeInstance, JavaGenericRefTypeInstance> supers = superContainer.getBoundSuperClasses();
+            for (int y = 0; y < size; ++y) {
+                if (y == x || removed[y]) continue;
+                if (supers.containsKey(poss.get(y))) {
+                    removed[y] = true;
                     effect = true;
-                    break;
                 }
             }
-        } while (effect);
-        return poss;
+        }
+        if (!effect) return poss;
+        List<JavaTypeInstance> res = ListFactory.newList();
+        for (int x = 0; x < size; ++x) {
+            if (!removed[x]) res.add(poss.get(x));
+        }
+        return res;
     }
 
     private static class IJTInternal_Impl implements IJTInternal {
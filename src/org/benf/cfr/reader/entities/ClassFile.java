@@ -69,6 +69,7 @@ import org.benf.cfr.reader.util.output.Dumper;
 import org.benf.cfr.reader.util.output.IllegalIdentifierReplacement;
 
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.LinkedHashMap;
 import java.util.List;
@@ -92,6 +93,7 @@ public class ClassFile implements Dumpable, TypeUsageCollectable {
 
     private final List<Method> methods;
     private Map<String, List<Method>> methodsByName; // Lazily populated if interrogated.
+    private Map<OverloadKey, OverloadCandidates> overloadCandidates; // Ditto.
     private final boolean isInnerClass;
     private final Map<JavaTypeInstance, Pair<InnerClassAttributeInfo, ClassFile>> innerClassesByTypeInfo; // populated if analysed.
 
@@ -116,6 +118,7 @@ public class ClassFile implements Dumpable, TypeUsageCollectable {
     private boolean hiddenInnerClass;
 
     private BindingSuperContainer boundSuperClasses;
+    private boolean generatingBoundSupers;
 
     private ClassFileDumper dumpHelper;
 
@@ -559,69 +562,156 @@ public class ClassFile implements Dumpable, TypeUsageCollectable {
     }
 
     public void removePointlessMethod(Method method) {
-        methodsByName.remove(method.getName());
+        if (methodsByName != null) {
+            List<Method> named = methodsByName.get(method.getName());
+            if (named != null) named.remove(method);
+        }
+        overloadCandidates = null;
         methods.remove(method);
     }
 
     private List<Method> getMethodsWithMatchingName(final MethodPrototype prototype) {
-        return Functional.filter(methods, new Predicate<Method>() {
-            @Override
-            public boolean test(Method in) {
-                return in.getName().equals(prototype.getName());
-            }
-        });
+        return getMethodsWithMatchingName(prototype.getName());
+    }
+
+    private List<Method> getMethodsWithMatchingName(String name) {
+        List<Method> named = getMethodsByNameOrNull(name);
+        return named == null ? Collections.<Method>emptyList() : named;
     }
 
     public OverloadMethodSet getOverloadMethodSet(final MethodPrototype prototype) {
-        List<Method> named = getMethodsWithMatchingName(prototype);
+        OverloadCandidates candidates = getOverloadCandidates(prototype);
+        /*
+         * Remove TOTAL duplicates - those with identical toStrings.
+         * TODO : Better way?
+         *
+         * Why does stringBuilder appear to have duplicate methods?
+         */
+        String comparable = prototype.getComparableString();
+        List<MethodPrototype> out = ListFactory.newList();
+        out.add(prototype);
+        for (int x = 0, len = candidates.prototypes.size(); x < len; ++x) {
+            if (!comparable.equals(candidates.comparableStrings.get(x))) {
+                out.add(candidates.prototypes.get(x));
+            }
+        }
+
+        return new OverloadMethodSet(this, prototype, out);
+    }
+
+    /*
+     * Every call to a method of this class wants the same few overload candidates, so remember them by
+     * name / arity / static-ness, with duplicates already removed.
+     */
+    private OverloadCandidates getOverloadCandidates(MethodPrototype prototype) {
+        if (overloadCandidates == null) {
+            overloadCandidates = MapFactory.newMap();
+        }
+        OverloadKey key = new OverloadKey(prototype);
+        OverloadCandidates candidates = overloadCandidates.get(key);
+        if (candidates == null || !candidates.isCurrent()) {
+            candidates = new OverloadCandidates(getMethodsWithMatchingName(key.name), findOverloadCandidates(key));
+            overloadCandidates.put(key, candidates);
+        }
+        return candidates;
+    }
+
+    private List<MethodPrototype> findOverloadCandidates(final OverloadKey key) {
+        List<Method> named = getMethodsWithMatchingName(key.name);
         /*
          * Filter this list to find all methods with the name number of args.
          */
-        final boolean isInstance = prototype.isInstanceMethod();
-        final int numArgs = prototype.getArgs().size();
-        final boolean isVarArgs = (prototype.isVarArgs());
         named = Functional.filter(named, new Predicate<Method>() {
             @Override
             public boolean test(Method in) {
                 MethodPrototype other = in.getMethodPrototype();
-                if (other.isInstanceMethod() != isInstance) return false;
+                if (other.isInstanceMethod() != key.isInstance) return false;
                 boolean otherIsVarargs = other.isVarArgs();
-                if (isVarArgs) {
+                if (key.isVarArgs) {
                     if (otherIsVarargs) return true;
-                    return (other.getArgs().size() >= numArgs);
+                    return (other.getArgs().size() >= key.numArgs);
                 }
                 if (otherIsVarargs) {
-                    return (other.getArgs().size() <= numArgs);
+                    return (other.getArgs().size() <= key.numArgs);
                 }
-                return (other.getArgs().size() == numArgs);
+                return (other.getArgs().size() == key.numArgs);
             }
         });
-        List<MethodPrototype> prototypes = Functional.map(named, new UnaryFunction<Method, MethodPrototype>() {
+        return Functional.map(named, new UnaryFunction<Method, MethodPrototype>() {
             @Override
             public MethodPrototype invoke(Method arg) {
                 return arg.getMethodPrototype();
             }
         });
-        /*
-         * Remove TOTAL duplicates - those with identical toStrings.
-         * TODO : Better way?
-         *
-         * Why does stringBuilder appear to have duplicate methods?
-         */
-        List<MethodPrototype> out = ListFactory.newList();
-        Set<String> matched = SetFactory.newSet();
-        out.add(prototype);
-        matched.add(prototype.getComparableString());
-        for (MethodPrototype other : prototypes) {
-            if (matched.add(other.getComparableString())) {
-                out.add(other);
+    }
+
+    private static class OverloadKey {
+        private final String name;
+        private final int numArgs;
+        private final boolean isInstance;
+        private final boolean isVarArgs;
+
+        private OverloadKey(MethodPrototype prototype) {
+            this.name = prototype.getName();
+            this.numArgs = prototype.getArgs().size();
+            this.isInstance = prototype.isInstanceMethod();
+            this.isVarArgs = prototype.isVarArgs();
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) return true;
+            if (!(o instanceof OverloadKey)) return false;
+            OverloadKey other = (OverloadKey) o;
+            return numArgs == other.numArgs &&
+                    isInstance == other.isInstance &&
+                    isVarArgs == other.isVarArgs &&
+                    name.equals(other.name);
+        }
+
+        @Override
+        public int hashCode() {
+            int res = name.hashCode();
+            res = 31 * res + numArgs;
+            res = 31 * res + (isInstance ? 1 : 0);
+            return 31 * res + (isVarArgs ? 1 : 0);
+        }
+    }
+
+    private static class OverloadCandidates {
+        private final List<MethodPrototype> prototypes = ListFactory.newList();
+        private final List<String> comparableStrings = ListFactory.newList();
+        // Constructor prototypes can gain / lose synthetic args once their class is analysed, which would
+        // change what matches - so remember the arity of everything with this name.
+        private final List<MethodPrototype> named;
+        private final int[] namedArgCounts;
+
+        private OverloadCandidates(List<Method> namedMethods, List<MethodPrototype> matching) {
+            Set<String> matched = SetFactory.newSet();
+            for (MethodPrototype prototype : matching) {
+                String comparable = prototype.getComparableString();
+                if (matched.add(comparable)) {
+                    prototypes.add(prototype);
+                    comparableStrings.add(comparable);
+                }
+            }
+            named = ListFactory.newList();
+            namedArgCounts = new int[namedMethods.size()];
+            for (Method method : namedMethods) {
+                MethodPrototype prototype = method.getMethodPrototype();
+                namedArgCounts[named.size()] = prototype.getArgs().size();
+                named.add(prototype);
             }
         }
 
-        return new OverloadMethodSet(this, prototype, out);
+        private boolean isCurrent() {
+            for (int x = 0; x < namedArgCounts.length; ++x) {
+                if (named.get(x).getArgs().size() != namedArgCounts[x]) return false;
+            }
+            return true;
+        }
     }
 
-
     /* We need to make sure we get the 'correct' method...
      * This requires a pass with a type binder, so that
      *
@@ -851,6 +941,23 @@ public class ClassFile implements Dumpable, TypeUsageCollectable {
         }
     }
 
+    /*
+     * We're only going to dump the methods called methodName, so there's no point analysing the bodies of
+     * methods which can't affect them.
+     *
+     * Synthetic methods (lambda bodies, accessors) are inlined into their callers, and the static initialiser
+     * tells us about asserts / enum switch tables etc, so those are kept.  Inner classes are analysed in full,
+     * as anonymous / local classes are dumped as part of the method which creates them.
+     */
+    public void skipAnalysisExcept(String methodName) {
+        for (Method method : methods) {
+            if (method.getName().equals(methodName)) continue;
+            if (method.getAccessFlags().contains(AccessFlagMethod.ACC_SYNTHETIC)) continue;
+            if (method.getConstructorFlag() == Method.MethodConstructor.STATIC_CONSTRUCTOR) continue;
+            method.skipAnalysis();
+        }
+    }
+
     public void analyseTop(final DCCommonState dcCommonState) {
         analyseMid(dcCommonState);
         analysePassOuterFirst(new UnaryProcedure<ClassFile>() {
@@ -1090,11 +1197,28 @@ public class ClassFile implements Dumpable, TypeUsageCollectable {
         // Start with the generic version of this type, i.e. if this is Fred<X>
 
         if (boundSuperClasses == null) {
-            boundSuperClasses = generateBoundSuperClasses();
+            generatingBoundSupers = true;
+            try {
+                boundSuperClasses = generateBoundSuperClasses();
+            } finally {
+                generatingBoundSupers = false;
+            }
+        } else {
+            // Cached - possibly by analysis of another class, which asked for the supers we'd otherwise ask for.
+            constantPool.getDCCommonState().noteUse(boundSuperClasses.getBoundSuperClasses().keySet());
         }
         return boundSuperClasses;
     }
 
+    /*
+     * Our own (identity bound) closure, if it's available to be reused by a subclass - it's not if we're
+     * part way through building it, which can only happen with a circular hierarchy.
+     */
+    private BindingSuperContainer getReusableBindingSupers() {
+        if (generatingBoundSupers) return null;
+        return getBindingSupers();
+    }
+
     private BindingSuperContainer generateBoundSuperClasses() {
         BoundSuperCollector boundSuperCollector = new BoundSuperCollector(this);
 
@@ -1152,6 +1276,27 @@ public class ClassFile implements Dumpable, TypeUsageCollectable {
                 genericTypeBinder = null;
             }
         }
+        /*
+         * If we've already got our own closure, rebind that rather than walking the hierarchy again - the
+         * identity bound supers only mention our own type parameters, so binding them with genericTypeBinder
+         * gives what the walk would.  Routes are relative to us, so an extension of ours is reached by route.
+         */
+        BindingSuperContainer ownSupers = getReusableBindingSupers();
+        if (ownSupers != null) {
+            Map<JavaRefTypeInstance, BindingSuperContainer.Route> ownRoutes = ownSupers.getBoundSuperRoute();
+            for (Map.Entry<JavaRefTypeInstance, JavaGenericRefTypeInstance> entry : ownSupers.getBoundSuperClasses().entrySet()) {
+                BindingSuperContainer.Route ownRoute = ownRoutes.get(entry.getKey());
+                if (ownRoute == BindingSuperContainer.Route.IDENTITY) continue;
+                BindingSuperContainer.Route superRoute = ownRoute == BindingSuperContainer.Route.INTERFACE ? ownRoute : route;
+                JavaGenericRefTypeInstance ownBound = entry.getValue();
+                if (ownBound == null) {
+                    boundSuperCollector.collect(entry.getKey(), superRoute);
+                } else {
+                    boundSuperCollector.collect(ownBound.getBoundInstance(genericTypeBinder), superRoute);
+                }
+            }
+            return;
+        }
         /*
          * Now, apply this to each of our superclass/interfaces.
          */
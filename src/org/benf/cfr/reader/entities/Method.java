@@ -225,6 +225,13 @@ public class Method implements KnowsRawSize, TypeUsageCollectable {
         return methodPrototype.getName();
     }
 
+    /*
+     * As it appears in the class file - unlike the prototype, this has no opinion about synthetics or generics.
+     */
+    public String getRawDescriptor() {
+        return cp.getUTF8Entry(descriptorIndex).getValue();
+    }
+
     /* This is a bit ugly - otherwise though we need to tie a variable namer to this earlier.
      * We can't always use the signature... in an enum, for example, it lies!
      *
@@ -414,6 +421,10 @@ public class Method implements KnowsRawSize, TypeUsageCollectable {
         }
     }
 
+    void skipAnalysis() {
+        if (codeAttribute != null) codeAttribute.skipAnalysis();
+    }
+
     public boolean hasCodeAttribute() {
         return codeAttribute != null;
     }
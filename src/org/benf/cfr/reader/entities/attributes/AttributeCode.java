@@ -2,6 +2,7 @@ package org.benf.cfr.reader.entities.attributes;
 
 import org.benf.cfr.reader.bytecode.CodeAnalyser;
 import org.benf.cfr.reader.bytecode.analysis.opgraph.Op04StructuredStatement;
+import org.benf.cfr.reader.bytecode.analysis.structured.statement.Block;
 import org.benf.cfr.reader.entities.constantpool.ConstantPool;
 import org.benf.cfr.reader.entities.Method;
 import org.benf.cfr.reader.entities.exceptions.ExceptionTableEntry;
@@ -14,6 +15,7 @@ import org.benf.cfr.reader.util.output.Dumper;
 
 import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.LinkedList;
 import java.util.List;
 import java.util.Map;
 
@@ -34,6 +36,8 @@ public class AttributeCode extends Attribute {
     private final ByteData rawData;
 
     private final CodeAnalyser codeAnalyser;
+    // If set, we've been told not to analyse this code, and this stands in for the result.
+    private Op04StructuredStatement skippedAnalysis;
 
     public AttributeCode(ByteData raw, final ConstantPool cp, ClassFileVersion classFileVersion) {
         this.cp = cp;
@@ -93,9 +97,19 @@ public class AttributeCode extends Attribute {
     }
 
     public Op04StructuredStatement analyse() {
+        if (skippedAnalysis != null) return skippedAnalysis;
         return codeAnalyser.getAnalysis(getConstantPool().getDCCommonState());
     }
 
+    /*
+     * This code won't be dumped, and what is being dumped doesn't depend on it - so anyone asking for the
+     * analysis gets an empty body instead.
+     */
+    public void skipAnalysis() {
+        if (skippedAnalysis != null) return;
+        skippedAnalysis = new Op04StructuredStatement(new Block(new LinkedList<Op04StructuredStatement>(), true));
+    }
+
     public ConstantPool getConstantPool() {
         return cp;
     }
@@ -116,6 +130,10 @@ public class AttributeCode extends Attribute {
         return getAttributeByName(AttributeLineNumberTable.ATTRIBUTE_NAME);
     }
 
+    public AttributeStackMapTable getStackMapTable() {
+        return getAttributeByName(AttributeStackMapTable.ATTRIBUTE_NAME);
+    }
+
     public AttributeRuntimeVisibleTypeAnnotations getRuntimeVisibleTypeAnnotations() {
         return getAttributeByName(AttributeRuntimeVisibleTypeAnnotations.ATTRIBUTE_NAME);
     }
@@ -7,6 +7,7 @@ import org.benf.cfr.reader.util.bytestream.ByteData;
 import org.benf.cfr.reader.util.bytestream.OffsettingByteData;
 import org.benf.cfr.reader.util.output.Dumper;
 
+import java.util.Collections;
 import java.util.List;
 
 /*
@@ -45,26 +46,28 @@ public class AttributeStackMapTable extends Attribute {
     private static final long OFFSET_OF_STACK_MAP_FRAMES = 8;
 
     private final int length;
-    private final boolean valid; // apparently, anyway!
-    private final List<StackMapFrame> stackMapFrames;
+    private final ByteData raw;
+    // Decoded on demand - most runs never look at these.
+    private boolean valid;
+    private List<StackMapFrame> stackMapFrames;
 
     public AttributeStackMapTable(ByteData raw, ConstantPool cp) {
         this.length = raw.getS4At(OFFSET_OF_ATTRIBUTE_LENGTH);
-        this.valid = false;
-        this.stackMapFrames = null;
+        // We may be handed a cursor which is about to move on - pin it.
+        this.raw = raw.getOffsetData(0);
     }
 
-    /*
-     * NB : Currently unused - until I actually make use of this, doesn't seem worth consuming the
-     * memory.
-     */
     public AttributeStackMapTable(ByteData raw, ConstantPool cp, ClassFileVersion classFileVersion) {
-        this.length = raw.getS4At(OFFSET_OF_ATTRIBUTE_LENGTH);
+        this(raw, cp);
+        decode();
+    }
+
+    private void decode() {
+        if (stackMapFrames != null) return;
         int numEntries = raw.getU2At(OFFSET_OF_NUMBER_OF_ENTRIES);
-        long offset = OFFSET_OF_STACK_MAP_FRAMES;
         List<StackMapFrame> frames = ListFactory.newList();
         boolean isValid = true;
-        OffsettingByteData data = raw.getOffsettingOffsetData(offset);
+        OffsettingByteData data = raw.getOffsettingOffsetData(OFFSET_OF_STACK_MAP_FRAMES);
         try {
             for (int x = 0; x < numEntries; ++x) {
                 StackMapFrame frame = readStackMapFrame(data);
@@ -78,20 +81,94 @@ public class AttributeStackMapTable extends Attribute {
     }
 
     public boolean isValid() {
+        decode();
         return valid;
     }
 
     public List<StackMapFrame> getStackMapFrames() {
+        decode();
         return stackMapFrames;
     }
 
+    /*
+     * The types of locals at each frame, in bytecode order, by slot - a long or double takes two slots, the
+     * second being TOP.
+     *
+     * The table only holds deltas from the implicit initial frame, which comes from the method descriptor - see
+     * getInitialLocals.  Returns null if the table (or the deltas) don't make sense.
+     */
+    public List<LocalsFrame> getLocalsFrames(List<VerificationInfo> initialLocals) {
+        if (!isValid()) return null;
+        List<LocalsFrame> res = ListFactory.newList();
+        List<VerificationInfo> locals = ListFactory.newList(initialLocals);
+        int offset = -1;
+        for (StackMapFrame frame : stackMapFrames) {
+            offset += frame.getOffsetDelta() + 1;
+            if (!frame.applyLocals(locals)) return null;
+            res.add(new LocalsFrame(offset, expand(locals)));
+        }
+        return res;
+    }
+
+    private static VerificationInfo[] expand(List<VerificationInfo> locals) {
+        int slots = 0;
+        for (VerificationInfo local : locals) {
+            slots += local.isWide() ? 2 : 1;
+        }
+        VerificationInfo[] res = new VerificationInfo[slots];
+        int idx = 0;
+        for (VerificationInfo local : locals) {
+            res[idx++] = local;
+            if (local.isWide()) res[idx++] = VerificationInfoTop.INSTANCE;
+        }
+        return res;
+    }
+
+    /*
+     * The implicit initial frame.  We don't resolve class names here, so reference arguments (and this) are
+     * objects of unknown class.
+     */
+    public static List<VerificationInfo> getInitialLocals(String descriptor, boolean isInstance) {
+        List<VerificationInfo> res = ListFactory.newList();
+        if (isInstance) res.add(VerificationInfoObject.UNKNOWN);
+        int idx = descriptor.indexOf('(') + 1;
+        while (idx < descriptor.length() && descriptor.charAt(idx) != ')') {
+            char c = descriptor.charAt(idx);
+            switch (c) {
+                case 'J':
+                    res.add(VerificationInfoLong.INSTANCE);
+                    break;
+                case 'D':
+                    res.add(VerificationInfoDouble.INSTANCE);
+                    break;
+                case 'F':
+                    res.add(VerificationInfoFloat.INSTANCE);
+                    break;
+                case '[':
+                    while (descriptor.charAt(idx) == '[') idx++;
+                    if (descriptor.charAt(idx) == 'L') idx = descriptor.indexOf(';', idx);
+                    res.add(VerificationInfoObject.UNKNOWN);
+                    break;
+                case 'L':
+                    idx = descriptor.indexOf(';', idx);
+                    res.add(VerificationInfoObject.UNKNOWN);
+                    break;
+                default:
+                    res.add(VerificationInfoInteger.INSTANCE);
+                    break;
+            }
+            idx++;
+        }
+        return res;
+    }
+
     private static StackMapFrame readStackMapFrame(OffsettingByteData raw) {
         short frameType = raw.getU1At(0);
         raw.advance(1);
         if (frameType < 64) {
             return new StackMapFrameSameFrame(frameType);
         }
-        if (frameType < 127) {
+        if (frameType < 128) {
             return same_locals_1_stack_item_frame(frameType, raw);
         }
         if (frameType < 247) {
@@ -220,7 +297,35 @@ public class AttributeStackMapTable extends Attribute {
         return OFFSET_OF_REMAINDER + length;
     }
 
+    public static final class LocalsFrame {
+        private final int offset;
+        private final VerificationInfo[] locals;
+
+        private LocalsFrame(int offset, VerificationInfo[] locals) {
+            this.offset = offset;
+            this.locals = locals;
+        }
+
+        public int getOffset() {
+            return offset;
+        }
+
+        public int getNumSlots() {
+            return locals.length;
+        }
+
+        public VerificationInfo getLocal(int slot) {
+            return locals[slot];
+        }
+    }
+
     private interface StackMapFrame {
+        int getOffsetDelta();
+
+        /*
+         * Returns false if this frame can't apply to the given locals.
+         */
+        boolean applyLocals(List<VerificationInfo> locals);
     }
 
     private static class StackMapFrameSameFrame implements StackMapFrame {
@@ -230,6 +335,15 @@ public class AttributeStackMapTable extends Attribute {
             this.id = id;
         }
 
+        @Override
+        public int getOffsetDelta() {
+            return id;
+        }
+
+        @Override
+        public boolean applyLocals(List<VerificationInfo> locals) {
+            return true;
+        }
     }
 
     private static class StackMapFrameSameLocals1SameItemFrame implements StackMapFrame {
@@ -241,6 +355,15 @@ public class AttributeStackMapTable extends Attribute {
             this.verificationInfo = verificationInfo;
         }
 
+        @Override
+        public int getOffsetDelta() {
+            return id - 64;
+        }
+
+        @Override
+        public boolean applyLocals(List<VerificationInfo> locals) {
+            return true;
+        }
     }
 
     private static class StackMapFrameSameLocals1SameItemFrameExtended implements StackMapFrame {
@@ -252,6 +375,15 @@ public class AttributeStackMapTable extends Attribute {
             this.verificationInfo = verificationInfo;
         }
 
+        @Override
+        public int getOffsetDelta() {
+            return offset_delta;
+        }
+
+        @Override
+        public boolean applyLocals(List<VerificationInfo> locals) {
+            return true;
+        }
     }
 
     private static class StackMapFrameChopFrame implements StackMapFrame {
@@ -262,6 +394,21 @@ public class AttributeStackMapTable extends Attribute {
             this.frame_type = frame_type;
             this.offset_delta = offset_delta;
         }
+
+        @Override
+        public int getOffsetDelta() {
+            return offset_delta;
+        }
+
+        @Override
+        public boolean applyLocals(List<VerificationInfo> locals) {
+            int chop = 251 - frame_type;
+            if (chop > locals.size()) return false;
+            for (int x = 0; x < chop; ++x) {
+                locals.remove(locals.size() - 1);
+            }
+            return true;
+        }
     }
 
     private static class StackMapFrameSameFrameExtended implements StackMapFrame {
@@ -271,6 +418,15 @@ public class AttributeStackMapTable extends Attribute {
             this.offset_delta = offset_delta;
         }
 
+        @Override
+        public int getOffsetDelta() {
+            return offset_delta;
+        }
+
+        @Override
+        public boolean applyLocals(List<VerificationInfo> locals) {
+            return true;
+        }
     }
 
     private static class StackMapFrameAppendFrame implements StackMapFrame {
@@ -284,6 +440,16 @@ public class AttributeStackMapTable extends Attribute {
             this.verificationInfos = verificationInfos;
         }
 
+        @Override
+        public int getOffsetDelta() {
+            return offset_delta;
+        }
+
+        @Override
+        public boolean applyLocals(List<VerificationInfo> locals) {
+            Collections.addAll(locals, verificationInfos);
+            return true;
+        }
     }
 
     private static class StackMapFrameFullFrame implements StackMapFrame {
@@ -297,14 +463,40 @@ public class AttributeStackMapTable extends Attribute {
             this.verificationStackItems = verificationStackItems;
         }
 
+        @Override
+        public int getOffsetDelta() {
+            return offset_delta;
+        }
+
+        @Override
+        public boolean applyLocals(List<VerificationInfo> locals) {
+            locals.clear();
+            Collections.addAll(locals, verificationLocals);
+            return true;
+        }
     }
     /*
      * Be nice to make this an enum, but we can't as variable info is ... variable.
      */
-    private interface VerificationInfo {
+    public interface VerificationInfo {
+        /*
+         * Constant pool index of the class, if this is an object of known class, otherwise -1.
+         */
+        int getClassIndex();
+
+        boolean isWide();
     }
 
     private static class AbstractVerificationInfo implements VerificationInfo {
+        @Override
+        public int getClassIndex() {
+            return -1;
+        }
+
+        @Override
+        public boolean isWide() {
+            return false;
+        }
     }
 
     private static class VerificationInfoTop extends AbstractVerificationInfo {
@@ -325,11 +517,21 @@ public class AttributeStackMapTable extends Attribute {
     private static class VerificationInfoDouble extends AbstractVerificationInfo {
         private static final char TYPE = 3;
         private static VerificationInfo INSTANCE = new VerificationInfoDouble();
+
+        @Override
+        public boolean isWide() {
+            return true;
+        }
     }
 
     private static class VerificationInfoLong extends AbstractVerificationInfo {
         private static final char TYPE = 4;
         private static VerificationInfo INSTANCE = new VerificationInfoLong();
+
+        @Override
+        public boolean isWide() {
+            return true;
+        }
     }
 
     private static class VerificationInfoNull extends AbstractVerificationInfo {
@@ -342,17 +544,23 @@ public class AttributeStackMapTable extends Attribute {
         private static VerificationInfo INSTANCE = new VerificationInfoUninitializedThis();
     }
 
-    private static class VerificationInfoObject implements VerificationInfo {
+    private static class VerificationInfoObject extends AbstractVerificationInfo {
         private static final char TYPE = 7;
+        // Used for the initial frame, where we know it's an object, but haven't looked up the class.
+        private static VerificationInfo UNKNOWN = new VerificationInfoObject(-1);
         private final int cpool_index;
 
         private VerificationInfoObject(int cpool_index) {
             this.cpool_index = cpool_index;
         }
 
+        @Override
+        public int getClassIndex() {
+            return cpool_index;
+        }
     }
 
-    private static class VerificationInfoUninitialized implements VerificationInfo {
+    private static class VerificationInfoUninitialized extends AbstractVerificationInfo {
         private static final char TYPE = 8;
         private final int offset;
 
@@ -7,6 +7,7 @@ import org.benf.cfr.reader.bytecode.analysis.types.*;
 import org.benf.cfr.reader.bytecode.analysis.variables.VariableNamer;
 import org.benf.cfr.reader.entities.ClassFile;
 import org.benf.cfr.reader.entities.Method;
+import org.benf.cfr.reader.state.ClassCache;
 import org.benf.cfr.reader.state.DCCommonState;
 import org.benf.cfr.reader.util.ConfusedCFRException;
 import org.benf.cfr.reader.util.MiscConstants;
@@ -63,7 +64,38 @@ public class ConstantPoolUtils {
         }
     }
 
+    /*
+     * The same descriptors turn up over and over (in every class which refers to String...), so types which don't
+     * depend on the constant pool they were found in are shared between every class using the same class cache.
+     * Type instances are immutable, so this is only visible as equality being cheaper.
+     */
     public static JavaTypeInstance decodeTypeTok(String tok, ConstantPool cp) {
+        ClassCache classCache = cp.getClassCache();
+        JavaTypeInstance res = classCache.getDecodedType(tok);
+        if (res != null) return res;
+        res = decodeTypeTokUncached(tok, cp);
+        if (!containsPlaceholder(res)) {
+            classCache.putDecodedType(tok, res);
+        }
+        return res;
+    }
+
+    /*
+     * Placeholders hold on to the constant pool they were found in (to find their bounds), so can't be shared.
+     */
+    private static boolean containsPlaceholder(JavaTypeInstance type) {
+        if (type instanceof JavaGenericPlaceholderTypeInstance) return true;
+        if (type instanceof JavaArrayTypeInstance) return containsPlaceholder(type.getArrayStrippedType());
+        if (type instanceof JavaWildcardTypeInstance) return containsPlaceholder(((JavaWildcardTypeInstance) type).getUnderlyingType());
+        if (type instanceof JavaGenericRefTypeInstance) {
+            for (JavaTypeInstance genericType : ((JavaGenericRefTypeInstance) type).getGenericTypes()) {
+                if (containsPlaceholder(genericType)) return true;
+            }
+        }
+        return false;
+    }
+
+    private static JavaTypeInstance decodeTypeTokUncached(String tok, ConstantPool cp) {
         int idx = 0;
         int numArrayDims = 0;
         char c = tok.charAt(idx);
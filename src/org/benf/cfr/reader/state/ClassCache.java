@@ -3,6 +3,7 @@ package org.benf.cfr.reader.state;
 import org.benf.cfr.reader.bytecode.analysis.parse.utils.Pair;
 import org.benf.cfr.reader.bytecode.analysis.types.ClassNameUtils;
 import org.benf.cfr.reader.bytecode.analysis.types.JavaRefTypeInstance;
+import org.benf.cfr.reader.bytecode.analysis.types.JavaTypeInstance;
 import org.benf.cfr.reader.bytecode.analysis.types.TypeConstants;
 import org.benf.cfr.reader.util.collections.MapFactory;
 import org.benf.cfr.reader.util.collections.SetFactory;
@@ -18,6 +19,9 @@ public class ClassCache {
     // This is a nice simple check.
     private final Set<String> simpleClassNamesSeen = SetFactory.newSet();
 
+    // Types decoded from descriptors / signatures which are safe to share - see ConstantPoolUtils.decodeTypeTok.
+    private final Map<String, JavaTypeInstance> decodedTypes = MapFactory.newMap();
+
     private final DCCommonState dcCommonState;
 
     ClassCache(DCCommonState dcCommonState) {
@@ -51,6 +55,14 @@ public class ClassCache {
         simpleClassNamesSeen.add(typeInstance.getRawShortName());
     }
 
+    public JavaTypeInstance getDecodedType(String tok) {
+        return decodedTypes.get(tok);
+    }
+
+    public void putDecodedType(String tok, JavaTypeInstance type) {
+        decodedTypes.put(tok, type);
+    }
+
     public boolean isClassName(String name) {
         return simpleClassNamesSeen.contains(name);
     }
@@ -21,8 +21,11 @@ import org.benf.cfr.reader.util.collections.SetFactory;
 import org.benf.cfr.reader.util.functors.BinaryFunction;
 import org.benf.cfr.reader.util.functors.UnaryFunction;
 import org.benf.cfr.reader.util.getopt.Options;
+import org.benf.cfr.reader.util.output.ExceptionDumper;
+import org.benf.cfr.reader.util.output.StdErrExceptionDumper;
 
 import java.io.File;
+import java.io.IOException;
 import java.util.*;
 import java.util.regex.Matcher;
 
@@ -35,9 +38,16 @@ public class DCCommonState {
     private Set<JavaTypeInstance> versionCollisions;
     private transient LinkedHashSet<String> couldNotLoadClasses = new LinkedHashSet<String>();
     private final ObfuscationMapping obfuscationMapping;
+    private final ExceptionDumper exceptionDumper;
+    private Set<String> usedPaths;
 
     public DCCommonState(Options options, ClassFileSource2 classFileSource) {
+        this(options, classFileSource, new StdErrExceptionDumper());
+    }
+
+    public DCCommonState(Options options, ClassFileSource2 classFileSource, ExceptionDumper exceptionDumper) {
         this.options = options;
+        this.exceptionDumper = exceptionDumper;
         this.classFileSource = classFileSource;
         this.classCache = new ClassCache(this);
         this.classFileCache = MapFactory.newExceptionRetainingLazyMap(new UnaryFunction<String, ClassFile>() {
@@ -52,6 +62,7 @@ public class DCCommonState {
 
     public DCCommonState(DCCommonState dcCommonState, final BinaryFunction<String, DCCommonState, ClassFile> cacheAccess) {
         this.options = dcCommonState.options;
+        this.exceptionDumper = dcCommonState.exceptionDumper;
         this.classFileSource = dcCommonState.classFileSource;
         this.classCache = new ClassCache(this);
         this.classFileCache = MapFactory.newExceptionRetainingLazyMap(new UnaryFunction<String, ClassFile>() {
@@ -67,6 +78,7 @@ public class DCCommonState {
     // TODO : If we have any more of these, refactor to a builder!
     public DCCommonState(DCCommonState dcCommonState, ObfuscationMapping mapping) {
         this.options = dcCommonState.options;
+        this.exceptionDumper = dcCommonState.exceptionDumper;
         this.classFileSource = dcCommonState.classFileSource;
         this.classCache = new ClassCache(this);
         this.classFileCache = MapFactory.newExceptionRetainingLazyMap(new UnaryFunction<String, ClassFile>() {
@@ -102,7 +114,7 @@ public class DCCommonState {
 
     public ClassFile loadClassFileAtPath(final String path) {
         try {
-            Pair<byte[], String> content = classFileSource.getClassFileContent(path);
+            Pair<byte[], String> content = getClassFileContent(path);
             ByteData data = new BaseByteData(content.getFirst());
             return new ClassFile(data, content.getSecond(), this);
         } catch (Exception e) {
@@ -111,6 +123,13 @@ public class DCCommonState {
         }
     }
 
+    /*
+     * The only way we read class files - for analysis, or to see what's changed since.
+     */
+    private Pair<byte[], String> getClassFileContent(String path) throws IOException {
+        return classFileSource.getClassFileContent(path);
+    }
+
     private static boolean isMultiReleaseJar(JarContent jarContent) {
         String val = jarContent.getManifestEntries().get(MiscConstants.MULTI_RELEASE_KEY);
         if (val == null) return false;
@@ -160,9 +179,45 @@ public class DCCommonState {
     }
 
     public ClassFile getClassFile(String path) throws CannotLoadClassException {
+        if (usedPaths != null) usedPaths.add(path);
         return classFileCache.get(path);
     }
 
+    /*
+     * Note every class file asked for (whether or not we've already loaded it) until stopRecordingUse - and,
+     * via noteUse, those an answer cached elsewhere was worked out from.
+     */
+    public void startRecordingUse() {
+        usedPaths = SetFactory.newOrderedSet();
+    }
+
+    public Set<String> stopRecordingUse() {
+        Set<String> res = usedPaths;
+        usedPaths = null;
+        return res;
+    }
+
+    /*
+     * An answer cached from the class files of these types is being reused, without asking for them again.
+     */
+    public void noteUse(Collection<JavaRefTypeInstance> types) {
+        if (usedPaths == null) return;
+        for (JavaRefTypeInstance type : types) {
+            usedPaths.add(getPath(type));
+        }
+    }
+
+    /*
+     * Bytes as they are now, not as we loaded them - null if there's no such class.
+     */
+    public byte[] getCurrentClassFileContent(String path) {
+        try {
+            return getClassFileContent(path).getFirst();
+        } catch (Exception e) {
+            return null;
+        }
+    }
+
     public JavaRefTypeInstance getClassTypeOrNull(String path) {
         try {
             ClassFile classFile = getClassFile(path);
@@ -173,9 +228,11 @@ public class DCCommonState {
     }
 
     public ClassFile getClassFile(JavaTypeInstance classInfo) throws CannotLoadClassException {
-        String path = classInfo.getRawName();
-        path = ClassNameUtils.convertToPath(path) + ".class";
-        return getClassFile(path);
+        return getClassFile(getPath(classInfo));
+    }
+
+    private static String getPath(JavaTypeInstance classInfo) {
+        return ClassNameUtils.convertToPath(classInfo.getRawName()) + ".class";
     }
 
     public ClassFile getClassFileMaybePath(String pathOrName) throws CannotLoadClassException {
@@ -196,6 +253,13 @@ public class DCCommonState {
         return classCache;
     }
 
+    /*
+     * For problems which don't stop us producing output, but which someone may want to know about.
+     */
+    public ExceptionDumper getExceptionDumper() {
+        return exceptionDumper;
+    }
+
     public Options getOptions() {
         return options;
     }
@@ -374,6 +374,9 @@ public class OptionsImpl implements Options {
     public static final PermittedOptionProvider.Argument<Troolean> RECOVER_TYPECLASHES = new PermittedOptionProvider.Argument<Troolean>(
             "recovertypeclash", defaultNeitherTrooleanDecoder,
             "Split lifetimes where analysis caused type clash");
+    public static final PermittedOptionProvider.Argument<Boolean> USE_STACKMAP_SLOT_HINTS = new PermittedOptionProvider.Argument<Boolean>(
+            "stackmapslothints", defaultFalseBooleanDecoder,
+            "When recovering, split lifetimes in slots the stack map table shows being reused for different classes (class files 51+ only)");
     public static final PermittedOptionProvider.Argument<Troolean> USE_RECOVERED_ITERATOR_TYPE_HINTS = new PermittedOptionProvider.Argument<Troolean>(
             "recovertypehints", defaultNeitherTrooleanDecoder,
             "Recover type hints for iterators from first pass.");
@@ -383,6 +386,12 @@ public class OptionsImpl implements Options {
     public static final PermittedOptionProvider.Argument<String> OUTPUT_PATH = new PermittedOptionProvider.Argument<String>(
             "outputpath", defaultNullStringDecoder,
             "Decompile to files in [directory]");
+    public static final PermittedOptionProvider.Argument<String> OUTPUT_ZIP = new PermittedOptionProvider.Argument<String>(
+            "outputzip", defaultNullStringDecoder,
+            "Decompile into a zip file at [file], written in the background (clobbers unless clobber is false).  Only one file may be analysed.");
+    public static final PermittedOptionProvider.Argument<Boolean> ASYNC_OUTPUT = new PermittedOptionProvider.Argument<Boolean>(
+            "asyncoutput", defaultFalseBooleanDecoder,
+            "Write files to outputdir / outputpath in the background, so analysis doesn't wait on the file system.  Problems writing are reported at the end.");
     public static final PermittedOptionProvider.Argument<Troolean> CLOBBER_FILES = new PermittedOptionProvider.Argument<Troolean>(
             "clobber", defaultNeitherTrooleanDecoder,
             "Overwrite files when using outputpath");
@@ -443,6 +452,9 @@ public class OptionsImpl implements Options {
     public static final PermittedOptionProvider.Argument<Integer> AGGRESSIVE_SIZE_REDUCTION_THRESHOLD = new PermittedOptionProvider.Argument<Integer>(
             "aggressivesizethreshold", new DefaultingIntDecoder(15000),
             "Opcode count at which to trigger aggressive reductions");
+    public static final PermittedOptionProvider.Argument<String> INCREMENTAL = new PermittedOptionProvider.Argument<String>(
+            "incremental", defaultNullStringDecoder,
+            "Read (if present) and write a manifest of class hashes and the classes each class's analysis used at [file].  Only classes which have changed, or use a class which has, are decompiled again.  Use the same output directory each time (changing options starts again).  Requires 'outputdir' or 'outputpath'.  Not used when renaming members, or for multi release jars.");
     public static final PermittedOptionProvider.Argument<Boolean> STATIC_INIT_RETURN = new PermittedOptionProvider.Argument<Boolean>(
             "staticinitreturn", defaultTrueBooleanDecoder,
             "Try to remove return from static init");
@@ -514,14 +526,14 @@ public class OptionsImpl implements Options {
                     REMOVE_DEAD_METHODS, REMOVE_BAD_GENERICS, SUGAR_ASSERTS, SUGAR_BOXING, SHOW_CFR_VERSION,
                     DECODE_FINALLY, TIDY_MONITORS, LENIENT, DUMP_CLASS_PATH,
                     DECOMPILER_COMMENTS, FORCE_TOPSORT, FORCE_TOPSORT_EXTRA, FORCE_PRUNE_EXCEPTIONS, OUTPUT_DIR,
-                    OUTPUT_PATH, CLOBBER_FILES, JAR_FILTER, IMPORT_FILTER,
+                    OUTPUT_PATH, OUTPUT_ZIP, ASYNC_OUTPUT, CLOBBER_FILES, JAR_FILTER, IMPORT_FILTER,
                     SUGAR_STRINGBUFFER, SUGAR_STRINGBUILDER, SUGAR_STRINGCONCATFACTORY, SILENT, RECOVER, ECLIPSE, OVERRIDES, SHOW_INFERRABLE,
                     FORCE_AGGRESSIVE_EXCEPTION_AGG, FORCE_COND_PROPAGATE, HIDE_UTF8, HIDE_LONGSTRINGS, COMMENT_MONITORS,
                     ALLOW_CORRECTING, LABELLED_BLOCKS, JAVA_4_CLASS_OBJECTS, HIDE_LANG_IMPORTS, FORCE_PASS,
-                    RECOVER_TYPECLASHES, USE_RECOVERED_ITERATOR_TYPE_HINTS,
+                    RECOVER_TYPECLASHES, USE_RECOVERED_ITERATOR_TYPE_HINTS, USE_STACKMAP_SLOT_HINTS,
                     FORCE_RETURNING_IFS, ANALYSE_AS, FOR_LOOP_CAPTURE, RENAME_DUP_MEMBERS, RENAME_ENUM_MEMBERS,
                     RENAME_SMALL_MEMBERS, RENAME_ILLEGAL_IDENTS, RENAME_MEMBERS, USE_NAME_TABLE,
-                    AGGRESSIVE_SIZE_REDUCTION_THRESHOLD, EXTRA_CLASS_PATH, PULL_CODE_CASE, HELP, ELIDE_SCALA,
+                    AGGRESSIVE_SIZE_REDUCTION_THRESHOLD, INCREMENTAL, EXTRA_CLASS_PATH, PULL_CODE_CASE, HELP, ELIDE_SCALA,
                     CASE_INSENSITIVE_FS_RENAME, RELINK_CONSTANT_STRINGS, REWRITE_TRY_RESOURCES, IGNORE_EXCEPTIONS,
                     IGNORE_EXCEPTIONS_ALWAYS, METHODNAME, SKIP_BATCH_INNER_CLASSES,
                     OBFUSCATION_PATH);
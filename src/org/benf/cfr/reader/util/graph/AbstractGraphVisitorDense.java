@@ -0,0 +1,65 @@
+package org.benf.cfr.reader.util.graph;
+
+import org.benf.cfr.reader.util.collections.ListFactory;
+import org.benf.cfr.reader.util.functors.BinaryProcedure;
+
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.List;
+
+/*
+ * Nodes are numbered lazily, in the order they're first seen - a node whose index doesn't point back
+ * at itself (never seen, or numbered by an earlier traversal) is given the next free number.
+ *
+ * NB: because the numbering lives on the nodes, two dense visitors must not walk the same nodes at the
+ * same time (i.e. don't start one from inside the callback of another).  Use GraphVisitorDFS for that.
+ */
+abstract class AbstractGraphVisitorDense<T extends DenseIndexed> implements GraphVisitor<T> {
+    private final List<T> nodes = ListFactory.newList();
+    final BitSet visited = new BitSet();
+    final BinaryProcedure<T, GraphVisitor<T>> callee;
+    boolean aborted = false;
+
+    AbstractGraphVisitorDense(BinaryProcedure<T, GraphVisitor<T>> callee) {
+        this.callee = callee;
+    }
+
+    final int indexOf(T node) {
+        int idx = node.getDenseIndex();
+        if (idx >= 0 && idx < nodes.size() && nodes.get(idx) == node) return idx;
+        idx = nodes.size();
+        nodes.add(node);
+        node.setDenseIndex(idx);
+        return idx;
+    }
+
+    final T nodeAt(int idx) {
+        return nodes.get(idx);
+    }
+
+    static int[] grow(int[] array, int needed) {
+        if (needed <= array.length) return array;
+        int[] res = new int[Math.max(needed, array.length * 2)];
+        System.arraycopy(array, 0, res, 0, array.length);
+        return res;
+    }
+
+    @Override
+    public void enqueue(Collection<? extends T> next) {
+        for (T t : next) enqueue(t);
+    }
+
+    @Override
+    public boolean wasAborted() {
+        return aborted;
+    }
+
+    @Override
+    public Collection<T> getVisitedNodes() {
+        List<T> res = ListFactory.newList(visited.cardinality());
+        for (int idx = visited.nextSetBit(0); idx >= 0; idx = visited.nextSetBit(idx + 1)) {
+            res.add(nodes.get(idx));
+        }
+        return res;
+    }
+}
@@ -0,0 +1,14 @@
+package org.benf.cfr.reader.util.graph;
+
+/*
+ * A graph node which can carry a small integer, so that the dense graph visitors can keep their
+ * visited set and work queues as primitive arrays rather than hashing nodes.
+ *
+ * The index is scratch state owned by whichever dense visitor last touched the node - it has no
+ * meaning outside of a traversal.
+ */
+public interface DenseIndexed {
+    int getDenseIndex();
+
+    void setDenseIndex(int index);
+}
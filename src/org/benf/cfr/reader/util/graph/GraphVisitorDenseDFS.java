@@ -0,0 +1,65 @@
+package org.benf.cfr.reader.util.graph;
+
+import org.benf.cfr.reader.util.functors.BinaryProcedure;
+
+import java.util.Collection;
+import java.util.Collections;
+
+/*
+ * Same visiting order as GraphVisitorDFS, but the pending stack, the enqueued buffer and the visited set
+ * are all primitive, and reused for every node visited.
+ */
+public class GraphVisitorDenseDFS<T extends DenseIndexed> extends AbstractGraphVisitorDense<T> {
+    private final Collection<? extends T> start;
+    // Top of stack is the next node to visit.
+    private int[] pending = new int[16];
+    private int pendingSize = 0;
+    private int[] enqueued = new int[8];
+    private int enqueuedSize = 0;
+
+    public GraphVisitorDenseDFS(T first, BinaryProcedure<T, GraphVisitor<T>> callee) {
+        super(callee);
+        this.start = Collections.singletonList(first);
+    }
+
+    public GraphVisitorDenseDFS(Collection<? extends T> first, BinaryProcedure<T, GraphVisitor<T>> callee) {
+        super(callee);
+        this.start = first;
+    }
+
+    @Override
+    public void enqueue(T next) {
+        if (next == null) return;
+        enqueued = grow(enqueued, enqueuedSize + 1);
+        enqueued[enqueuedSize++] = indexOf(next);
+    }
+
+    @Override
+    public void abort() {
+        enqueuedSize = 0;
+        pendingSize = 0;
+        aborted = true;
+    }
+
+    @Override
+    public void process() {
+        pendingSize = 0;
+        enqueuedSize = 0;
+        for (T t : start) enqueue(t);
+        pushEnqueued();
+        while (pendingSize > 0) {
+            int current = pending[--pendingSize];
+            if (!visited.get(current)) {
+                visited.set(current);
+                callee.call(nodeAt(current), this);
+                pushEnqueued();
+            }
+        }
+    }
+
+    // Prefix pending with enqueued, so the first thing enqueued is the next visited.
+    private void pushEnqueued() {
+        pending = grow(pending, pendingSize + enqueuedSize);
+        while (enqueuedSize > 0) pending[pendingSize++] = enqueued[--enqueuedSize];
+    }
+}
@@ -0,0 +1,42 @@
+package org.benf.cfr.reader.util.graph;
+
+import org.benf.cfr.reader.util.functors.BinaryProcedure;
+
+/*
+ * Same visiting order as GraphVisitorFIFO.  As a node is only ever queued once, the queue is just an
+ * array which is never compacted.
+ */
+public class GraphVisitorDenseFIFO<T extends DenseIndexed> extends AbstractGraphVisitorDense<T> {
+    private int[] toVisit = new int[16];
+    private int head = 0;
+    private int tail = 0;
+
+    public GraphVisitorDenseFIFO(T first, BinaryProcedure<T, GraphVisitor<T>> callee) {
+        super(callee);
+        enqueue(first);
+    }
+
+    @Override
+    public void enqueue(T next) {
+        if (next == null) return;
+        int idx = indexOf(next);
+        if (!visited.get(idx)) {
+            visited.set(idx);
+            toVisit = grow(toVisit, tail + 1);
+            toVisit[tail++] = idx;
+        }
+    }
+
+    @Override
+    public void abort() {
+        head = tail;
+        aborted = true;
+    }
+
+    @Override
+    public void process() {
+        while (head < tail) {
+            callee.call(nodeAt(toVisit[head++]), this);
+        }
+    }
+}
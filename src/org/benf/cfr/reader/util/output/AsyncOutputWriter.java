@@ -0,0 +1,220 @@
+package org.benf.cfr.reader.util.output;
+
+import org.benf.cfr.reader.bytecode.analysis.parse.utils.Pair;
+import org.benf.cfr.reader.util.collections.ListFactory;
+import org.benf.cfr.reader.util.getopt.OptionsImpl;
+
+import java.io.BufferedOutputStream;
+import java.io.BufferedWriter;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipOutputStream;
+
+/*
+ * Writes finished files from a background thread, so that analysis never waits on the file system - creating
+ * directories and files on a network file system can take as long as decompiling.
+ *
+ * Files are either written to a directory, as FileDumper does, or appended to a single zip.  The queue is
+ * bounded, so if we're producing faster than we can write, analysis waits for room rather than holding
+ * everything.
+ *
+ * Zip entries are written in the order files are finished, which is jar order.
+ *
+ * Problems writing are reported (once we're closed) to the exception dumper - as the class they're for will
+ * usually be long gone by then.
+ */
+public class AsyncOutputWriter {
+    private static final int QUEUE_SIZE = 64;
+    private static final Pair<String, String> END = Pair.make(null, null);
+
+    private final Target target;
+    private final ExceptionDumper exceptionDumper;
+    private final BlockingQueue<Pair<String, String>> queue = new ArrayBlockingQueue<Pair<String, String>>(QUEUE_SIZE);
+    private final List<Pair<String, Exception>> failures = ListFactory.newList();
+    private final Thread thread;
+    private boolean closed;
+
+    private AsyncOutputWriter(Target target, ExceptionDumper exceptionDumper) {
+        this.target = target;
+        this.exceptionDumper = exceptionDumper;
+        this.thread = new Thread(new Runnable() {
+            @Override
+            public void run() {
+                writeQueued();
+            }
+        }, "cfr-output");
+        this.thread.setDaemon(true);
+        this.thread.start();
+    }
+
+    static AsyncOutputWriter toDirectory(String dir, boolean clobber, ExceptionDumper exceptionDumper) {
+        return new AsyncOutputWriter(new DirectoryTarget(dir, clobber), exceptionDumper);
+    }
+
+    static AsyncOutputWriter toZip(String path, boolean clobber, ExceptionDumper exceptionDumper) {
+        File file = new File(path);
+        if (file.exists() && !clobber) {
+            throw new Dumper.CannotCreate("File already exists, and option '" + OptionsImpl.CLOBBER_FILES.getName() + "' not set");
+        }
+        try {
+            File parent = file.getAbsoluteFile().getParentFile();
+            if (!parent.exists() && !parent.mkdirs()) {
+                throw new IllegalStateException("Couldn't create dir: " + parent);
+            }
+            ZipOutputStream zip = new ZipOutputStream(new BufferedOutputStream(new FileOutputStream(file)));
+            return new AsyncOutputWriter(new ZipTarget(zip), exceptionDumper);
+        } catch (IOException e) {
+            throw new Dumper.CannotCreate(e);
+        }
+    }
+
+    /*
+     * The name a file will be written as - dir is relative to where we're writing.
+     */
+    String getFileName(String dir, Pair<String, String> names, SummaryDumper summaryDumper) {
+        return target.getFileName(FileDumper.mkFilename(dir, names, summaryDumper));
+    }
+
+    String getSummaryFileName() {
+        return target.getFileName(File.separator + "summary.txt");
+    }
+
+    void write(String fileName, String content) {
+        if (closed) throw new IllegalStateException("Output already closed");
+        try {
+            queue.put(Pair.make(fileName, content));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private void writeQueued() {
+        try {
+            while (true) {
+                Pair<String, String> entry = queue.take();
+                if (entry == END) break;
+                try {
+                    target.write(entry.getFirst(), entry.getSecond());
+                } catch (Exception e) {
+                    noteFailure(entry.getFirst(), e);
+                }
+            }
+        } catch (InterruptedException e) {
+            noteFailure(null, e);
+        } finally {
+            try {
+                target.close();
+            } catch (Exception e) {
+                noteFailure(null, e);
+            }
+        }
+    }
+
+    private synchronized void noteFailure(String fileName, Exception e) {
+        failures.add(Pair.make(fileName, e));
+    }
+
+    /*
+     * Wait for everything to be written.
+     */
+    public void close() {
+        if (closed) return;
+        closed = true;
+        try {
+            queue.put(END);
+            thread.join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException(e);
+        }
+        synchronized (this) {
+            for (Pair<String, Exception> failure : failures) {
+                String fileName = failure.getFirst();
+                exceptionDumper.noteException(fileName, fileName == null ? "Exception writing output" : ("Exception writing " + fileName), failure.getSecond());
+            }
+        }
+    }
+
+    private interface Target {
+        String getFileName(String path);
+
+        void write(String fileName, String content) throws IOException;
+
+        void close() throws IOException;
+    }
+
+    private static class DirectoryTarget implements Target {
+        private final String dir;
+        private final boolean clobber;
+
+        private DirectoryTarget(String dir, boolean clobber) {
+            this.dir = dir;
+            this.clobber = clobber;
+        }
+
+        @Override
+        public String getFileName(String path) {
+            return dir + path;
+        }
+
+        @Override
+        public void write(String fileName, String content) throws IOException {
+            File file = new File(fileName);
+            File parent = file.getParentFile();
+            if (!parent.exists() && !parent.mkdirs()) {
+                throw new IllegalStateException("Couldn't create dir: " + parent);
+            }
+            if (file.exists() && !clobber) {
+                throw new Dumper.CannotCreate("File already exists, and option '" + OptionsImpl.CLOBBER_FILES.getName() + "' not set");
+            }
+            Writer writer = new BufferedWriter(new OutputStreamWriter(new FileOutputStream(file)));
+            try {
+                writer.write(content);
+            } finally {
+                writer.close();
+            }
+        }
+
+        @Override
+        public void close() {
+        }
+    }
+
+    private static class ZipTarget implements Target {
+        private final ZipOutputStream zip;
+        private final Writer writer;
+
+        private ZipTarget(ZipOutputStream zip) {
+            this.zip = zip;
+            // Same encoding as FileDumper.
+            this.writer = new OutputStreamWriter(zip);
+        }
+
+        @Override
+        public String getFileName(String path) {
+            String res = path.replace(File.separatorChar, '/').replaceAll("/+", "/");
+            return res.startsWith("/") ? res.substring(1) : res;
+        }
+
+        @Override
+        public void write(String fileName, String content) throws IOException {
+            zip.putNextEntry(new ZipEntry(fileName));
+            writer.write(content);
+            writer.flush();
+            zip.closeEntry();
+        }
+
+        @Override
+        public void close() throws IOException {
+            zip.close();
+        }
+    }
+}
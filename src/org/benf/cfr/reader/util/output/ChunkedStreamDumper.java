@@ -0,0 +1,107 @@
+package org.benf.cfr.reader.util.output;
+
+import org.benf.cfr.reader.api.OutputSinkFactory;
+import org.benf.cfr.reader.api.SinkReturns;
+import org.benf.cfr.reader.bytecode.analysis.parse.utils.Pair;
+import org.benf.cfr.reader.bytecode.analysis.types.ClassNameUtils;
+import org.benf.cfr.reader.bytecode.analysis.types.JavaTypeInstance;
+import org.benf.cfr.reader.entities.Method;
+import org.benf.cfr.reader.state.TypeUsageInformation;
+import org.benf.cfr.reader.util.getopt.Options;
+
+/*
+ * Hands java to the sink in pieces of at most CHUNK_SIZE characters as soon as we have them, rather than
+ * building the whole class up first.
+ *
+ * The one chunk object (and its text) is reused for every piece, so beyond what FlushingStreamDumper buffers before
+ * writing, the most we hold is CHUNK_SIZE.
+ */
+public class ChunkedStreamDumper extends FlushingStreamDumper {
+    private static final int CHUNK_SIZE = 8192;
+
+    private final OutputSinkFactory.Sink<SinkReturns.DecompiledChunk> sink;
+    private final StringBuilder chunkText = new StringBuilder(CHUNK_SIZE);
+    private final Chunk chunk;
+    private boolean closed;
+
+    ChunkedStreamDumper(OutputSinkFactory.Sink<SinkReturns.DecompiledChunk> sink, int version, JavaTypeInstance classType, TypeUsageInformation typeUsageInformation, Options options, IllegalIdentifierDump illegalIdentifierDump) {
+        super(typeUsageInformation, options, illegalIdentifierDump, 0);
+        this.sink = sink;
+        Pair<String, String> names = ClassNameUtils.getPackageAndClassNames(classType);
+        this.chunk = new Chunk(names.getFirst(), names.getSecond(), version);
+    }
+
+    @Override
+    protected void write(String s) {
+        int from = 0;
+        int len = s.length();
+        while (len - from > CHUNK_SIZE - chunkText.length()) {
+            int to = from + CHUNK_SIZE - chunkText.length();
+            chunkText.append(s, from, to);
+            emit(false);
+            from = to;
+        }
+        chunkText.append(s, from, len);
+    }
+
+    private void emit(boolean last) {
+        chunk.last = last;
+        sink.write(chunk);
+        chunkText.setLength(0);
+    }
+
+    @Override
+    public void close() {
+        if (closed) return;
+        closed = true;
+        flush();
+        emit(true);
+    }
+
+    @Override
+    public void addSummaryError(Method method, String s) {
+    }
+
+    @Override
+    public Dumper withTypeUsageInformation(TypeUsageInformation innerclassTypeUsageInformation) {
+        return new TypeOverridingDumper(this, innerclassTypeUsageInformation);
+    }
+
+    private class Chunk implements SinkReturns.DecompiledChunk {
+        private final String packageName;
+        private final String className;
+        private final int version;
+        private boolean last;
+
+        private Chunk(String packageName, String className, int version) {
+            this.packageName = packageName;
+            this.className = className;
+            this.version = version;
+        }
+
+        @Override
+        public String getPackageName() {
+            return packageName;
+        }
+
+        @Override
+        public String getClassName() {
+            return className;
+        }
+
+        @Override
+        public int getRuntimeFrom() {
+            return version;
+        }
+
+        @Override
+        public CharSequence getText() {
+            return chunkText;
+        }
+
+        @Override
+        public boolean isLast() {
+            return last;
+        }
+    }
+}
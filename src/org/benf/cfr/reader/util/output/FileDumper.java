@@ -10,7 +10,7 @@ import org.benf.cfr.reader.util.getopt.OptionsImpl;
 
 import java.io.*;
 
-public class FileDumper extends StreamDumper {
+public class FileDumper extends FlushingStreamDumper {
     private final JavaTypeInstance type;
     private final SummaryDumper summaryDumper;
     private final String path;
@@ -20,7 +20,7 @@ public class FileDumper extends StreamDumper {
     private static final int TRUNC_PREFIX_LEN = 150;
     private static int truncCount = 0;
 
-    private String mkFilename(String dir, Pair<String, String> names, SummaryDumper summaryDumper) {
+    static String mkFilename(String dir, Pair<String, String> names, SummaryDumper summaryDumper) {
         String packageName = names.getFirst();
         String className = names.getSecond();
         if (className.length() > MAX_FILE_LEN_MINUS_EXT) {
@@ -60,6 +60,7 @@ public class FileDumper extends StreamDumper {
 
     @Override
     public void close() {
+        flush();
         try {
             writer.close();
         } catch (IOException e) {
@@ -18,6 +18,15 @@ public class FileSummaryDumper implements SummaryDumper {
     private transient JavaTypeInstance lastControllingType = null;
     private transient Method lastMethod = null;
 
+    /*
+     * Writer will be closed with us.
+     */
+    FileSummaryDumper(Writer writer, Options options, DecompilerCommentSource additional) {
+        this.additionalComments = additional;
+        this.options = options;
+        this.writer = new BufferedWriter(writer);
+    }
+
     public FileSummaryDumper(String dir, Options options, DecompilerCommentSource additional) {
         additionalComments = additional;
         this.options = options;
@@ -0,0 +1,46 @@
+package org.benf.cfr.reader.util.output;
+
+import org.benf.cfr.reader.state.TypeUsageInformation;
+import org.benf.cfr.reader.util.getopt.Options;
+
+/*
+ * Hands what's been buffered to write at block boundaries (once there's a reasonable amount of it) - so
+ * subclasses see a few large writes, rather than one per token.  Subclasses must flush when they're closed.
+ */
+public abstract class FlushingStreamDumper extends StreamDumper {
+    private static final int FLUSH_SIZE = 8192;
+    // Even if we never see the end of a block.
+    private static final int MAX_BUFFER_SIZE = 65536;
+
+    FlushingStreamDumper(TypeUsageInformation typeUsageInformation, Options options, IllegalIdentifierDump illegalIdentifierDump, int indent) {
+        super(typeUsageInformation, options, illegalIdentifierDump, indent);
+    }
+
+    FlushingStreamDumper(TypeUsageInformation typeUsageInformation, Options options, IllegalIdentifierDump illegalIdentifierDump, int indent, StringBuilder buffer) {
+        super(typeUsageInformation, options, illegalIdentifierDump, indent, buffer);
+    }
+
+    protected abstract void write(String s);
+
+    /*
+     * Hand anything we've buffered to write.
+     */
+    protected void flush() {
+        if (buffer.length() == 0) return;
+        write(buffer.toString());
+        buffer.setLength(0);
+    }
+
+    @Override
+    public Dumper newln() {
+        super.newln();
+        if (buffer.length() >= MAX_BUFFER_SIZE) flush();
+        return this;
+    }
+
+    @Override
+    public void indent(int diff) {
+        super.indent(diff);
+        if (buffer.length() >= FLUSH_SIZE) flush();
+    }
+}
@@ -10,6 +10,7 @@ import org.benf.cfr.reader.util.collections.SetFactory;
 import org.benf.cfr.reader.util.getopt.Options;
 import org.benf.cfr.reader.util.getopt.OptionsImpl;
 
+import java.io.StringWriter;
 import java.util.List;
 import java.util.Set;
 
@@ -20,17 +21,26 @@ public class InternalDumperFactoryImpl implements DumperFactory {
     private final Options options;
     private final ProgressDumper progressDumper;
     private final String prefix;
+    private final AsyncOutputWriter outputWriter;
 
 
     public InternalDumperFactoryImpl(Options options) {
+        this(options, null);
+    }
+
+    /*
+     * outputWriter (if any) should come from createOutputWriter.
+     */
+    public InternalDumperFactoryImpl(Options options, AsyncOutputWriter outputWriter) {
         this.checkDupes = CaseSensitiveFileSystemHelper.IsCaseSensitive() && !options.getOption(OptionsImpl.CASE_INSENSITIVE_FS_RENAME);
         this.options = options;
-        if (!options.getOption(OptionsImpl.SILENT) && (options.optionIsSet(OptionsImpl.OUTPUT_DIR) || options.optionIsSet(OptionsImpl.OUTPUT_PATH))) {
+        if (!options.getOption(OptionsImpl.SILENT) && (options.optionIsSet(OptionsImpl.OUTPUT_DIR) || options.optionIsSet(OptionsImpl.OUTPUT_PATH) || options.optionIsSet(OptionsImpl.OUTPUT_ZIP))) {
             progressDumper = new ProgressDumperStdErr();
         } else {
             progressDumper = ProgressDumperNop.INSTANCE;
         }
         this.prefix = "";
+        this.outputWriter = outputWriter;
     }
 
     private InternalDumperFactoryImpl(InternalDumperFactoryImpl other, String prefix) {
@@ -39,6 +49,7 @@ public class InternalDumperFactoryImpl implements DumperFactory {
         this.options = other.options;
         this.progressDumper = other.progressDumper;
         this.prefix = prefix;
+        this.outputWriter = other.outputWriter;
     }
 
     @Override
@@ -47,6 +58,10 @@ public class InternalDumperFactoryImpl implements DumperFactory {
     }
 
     private Pair<String, Boolean> getPathAndClobber() {
+        return getPathAndClobber(options);
+    }
+
+    private static Pair<String, Boolean> getPathAndClobber(Options options) {
         Troolean clobber = options.getOption(OptionsImpl.CLOBBER_FILES);
         if (options.optionIsSet(OptionsImpl.OUTPUT_DIR)) {
             return Pair.make(options.getOption(OptionsImpl.OUTPUT_DIR), clobber.boolValue(true));
@@ -57,18 +72,43 @@ public class InternalDumperFactoryImpl implements DumperFactory {
         return null;
     }
 
+    /*
+     * If we've been asked to write a zip, or to write files in the background, the writer to share between the
+     * factories for a run - null otherwise.  It must be closed at the end of the run.
+     */
+    public static AsyncOutputWriter createOutputWriter(Options options) {
+        if (options.optionIsSet(OptionsImpl.OUTPUT_ZIP)) {
+            boolean clobber = options.getOption(OptionsImpl.CLOBBER_FILES).boolValue(true);
+            return AsyncOutputWriter.toZip(options.getOption(OptionsImpl.OUTPUT_ZIP), clobber, new StdErrExceptionDumper());
+        }
+        if (!options.getOption(OptionsImpl.ASYNC_OUTPUT)) return null;
+        Pair<String, Boolean> targetInfo = getPathAndClobber(options);
+        if (targetInfo == null) return null;
+        return AsyncOutputWriter.toDirectory(targetInfo.getFirst(), targetInfo.getSecond(), new StdErrExceptionDumper());
+    }
+
     public Dumper getNewTopLevelDumper(JavaTypeInstance classType, SummaryDumper summaryDumper, TypeUsageInformation typeUsageInformation, IllegalIdentifierDump illegalIdentifierDump) {
+        if (outputWriter != null) {
+            QueuedFileDumper res = new QueuedFileDumper(outputWriter, prefix, classType, summaryDumper, typeUsageInformation, options, illegalIdentifierDump);
+            noteFileName(res.getFileName());
+            return res;
+        }
+
         Pair<String, Boolean> targetInfo = getPathAndClobber();
 
         if (targetInfo == null) return new StdIODumper(typeUsageInformation, options, illegalIdentifierDump, 0);
 
         FileDumper res = new FileDumper(targetInfo.getFirst() + prefix, targetInfo.getSecond(), classType, summaryDumper, typeUsageInformation, options, illegalIdentifierDump);
+        noteFileName(res.getFileName());
+        return res;
+    }
+
+    private void noteFileName(String fileName) {
         if (checkDupes) {
-            if (!seen.add(res.getFileName().toLowerCase())) {
+            if (!seen.add(fileName.toLowerCase())) {
                 seenCaseDupe = true;
             }
         }
-        return res;
     }
 
     @Override
@@ -92,6 +132,16 @@ public class InternalDumperFactoryImpl implements DumperFactory {
      * A summary dumper will receive errors.  Generally, it's only of value when dumping jars to file.
      */
     public SummaryDumper getSummaryDumper() {
+        if (outputWriter != null) {
+            final String fileName = outputWriter.getSummaryFileName();
+            return new FileSummaryDumper(new StringWriter() {
+                @Override
+                public void close() {
+                    outputWriter.write(fileName, toString());
+                }
+            }, options, new AdditionalComments());
+        }
+
         Pair<String, Boolean> targetInfo = getPathAndClobber();
 
         if (targetInfo == null) return new NopSummaryDumper();
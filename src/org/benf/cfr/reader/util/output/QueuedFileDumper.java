@@ -0,0 +1,50 @@
+package org.benf.cfr.reader.util.output;
+
+import org.benf.cfr.reader.bytecode.analysis.parse.utils.Pair;
+import org.benf.cfr.reader.bytecode.analysis.types.ClassNameUtils;
+import org.benf.cfr.reader.bytecode.analysis.types.JavaTypeInstance;
+import org.benf.cfr.reader.entities.Method;
+import org.benf.cfr.reader.state.TypeUsageInformation;
+import org.benf.cfr.reader.util.getopt.Options;
+
+/*
+ * As FileDumper, but the file is built up in memory and handed to an AsyncOutputWriter when we're closed.
+ */
+public class QueuedFileDumper extends StreamDumper {
+    private final JavaTypeInstance type;
+    private final SummaryDumper summaryDumper;
+    private final AsyncOutputWriter outputWriter;
+    private final String fileName;
+    private boolean closed;
+
+    QueuedFileDumper(AsyncOutputWriter outputWriter, String dir, JavaTypeInstance type, SummaryDumper summaryDumper, TypeUsageInformation typeUsageInformation, Options options, IllegalIdentifierDump illegalIdentifierDump) {
+        // Everything's held in the buffer until we're closed.
+        super(typeUsageInformation, options, illegalIdentifierDump, 0, new StringBuilder());
+        this.type = type;
+        this.summaryDumper = summaryDumper;
+        this.outputWriter = outputWriter;
+        Pair<String, String> names = ClassNameUtils.getPackageAndClassNames(type);
+        this.fileName = outputWriter.getFileName(dir, names, summaryDumper);
+    }
+
+    @Override
+    public void close() {
+        if (closed) return;
+        closed = true;
+        outputWriter.write(fileName, buffer.toString());
+    }
+
+    String getFileName() {
+        return fileName;
+    }
+
+    @Override
+    public void addSummaryError(Method method, String s) {
+        summaryDumper.notifyError(type, method, s);
+    }
+
+    @Override
+    public Dumper withTypeUsageInformation(TypeUsageInformation innerclassTypeUsageInformation) {
+        return new TypeOverridingDumper(this, innerclassTypeUsageInformation);
+    }
+}
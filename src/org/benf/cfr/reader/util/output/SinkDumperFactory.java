@@ -37,7 +37,7 @@ public class SinkDumperFactory implements DumperFactory {
 
     @Override
     public Dumper getNewTopLevelDumper(JavaTypeInstance classType, SummaryDumper summaryDumper, TypeUsageInformation typeUsageInformation, IllegalIdentifierDump illegalIdentifierDump) {
-        List<OutputSinkFactory.SinkClass> supported = sinkFactory.getSupportedSinks(OutputSinkFactory.SinkType.JAVA, Arrays.asList(OutputSinkFactory.SinkClass.DECOMPILED_MULTIVER, OutputSinkFactory.SinkClass.DECOMPILED, OutputSinkFactory.SinkClass.TOKEN_STREAM, OutputSinkFactory.SinkClass.STRING));
+        List<OutputSinkFactory.SinkClass> supported = sinkFactory.getSupportedSinks(OutputSinkFactory.SinkType.JAVA, Arrays.asList(OutputSinkFactory.SinkClass.DECOMPILED_MULTIVER, OutputSinkFactory.SinkClass.DECOMPILED, OutputSinkFactory.SinkClass.TOKEN_STREAM, OutputSinkFactory.SinkClass.DECOMPILED_CHUNKS, OutputSinkFactory.SinkClass.TOKEN_BATCH, OutputSinkFactory.SinkClass.STRING));
         if (supported == null) supported = justString;
         for (OutputSinkFactory.SinkClass sinkClass : supported) {
             switch (sinkClass) {
@@ -49,6 +49,10 @@ public class SinkDumperFactory implements DumperFactory {
                     return SinkStringClassDumper(sinkFactory.<String>getSink(OutputSinkFactory.SinkType.JAVA, sinkClass), typeUsageInformation, illegalIdentifierDump);
                 case TOKEN_STREAM:
                     return TokenStreamClassDumper(sinkFactory.<SinkReturns.Token>getSink(OutputSinkFactory.SinkType.JAVA, sinkClass), version, classType, typeUsageInformation, illegalIdentifierDump);
+                case TOKEN_BATCH:
+                    return new TokenStreamDumper(new TokenBatchWriter(sinkFactory.<SinkReturns.TokenBatch>getSink(OutputSinkFactory.SinkType.JAVA, sinkClass)), version, classType, typeUsageInformation, options, illegalIdentifierDump);
+                case DECOMPILED_CHUNKS:
+                    return new ChunkedStreamDumper(sinkFactory.<SinkReturns.DecompiledChunk>getSink(OutputSinkFactory.SinkType.JAVA, sinkClass), version, classType, typeUsageInformation, options, illegalIdentifierDump);
                 default:
             }
         }
@@ -4,11 +4,15 @@ import org.benf.cfr.reader.entities.Method;
 import org.benf.cfr.reader.state.TypeUsageInformation;
 import org.benf.cfr.reader.util.getopt.Options;
 
-public class StdIODumper extends StreamDumper {
+public class StdIODumper extends FlushingStreamDumper {
     public StdIODumper(TypeUsageInformation typeUsageInformation, Options options, IllegalIdentifierDump illegalIdentifierDump, int indent) {
         super(typeUsageInformation, options, illegalIdentifierDump, indent);
     }
 
+    private StdIODumper(TypeUsageInformation typeUsageInformation, Options options, IllegalIdentifierDump illegalIdentifierDump, int indent, StringBuilder buffer) {
+        super(typeUsageInformation, options, illegalIdentifierDump, indent, buffer);
+    }
+
     @Override
     protected void write(String s) {
         System.out.print(s);
@@ -20,10 +24,12 @@ public class StdIODumper extends StreamDumper {
 
     @Override
     public void close() {
+        flush();
     }
 
     @Override
     public Dumper withTypeUsageInformation(TypeUsageInformation innerclassTypeUsageInformation) {
-        return new StdIODumper(innerclassTypeUsageInformation, options, illegalIdentifierDump, indent);
+        // Shares our buffer, as we'll be the one flushed.
+        return new StdIODumper(innerclassTypeUsageInformation, options, illegalIdentifierDump, indent, buffer);
     }
 }
@@ -13,22 +13,48 @@ import org.benf.cfr.reader.util.getopt.OptionsImpl;
 
 import java.util.Set;
 
+/*
+ * Output is gathered in buffer.  Dumpers which keep the whole text use it directly - FlushingStreamDumper hands
+ * it on as it goes.
+ */
 public abstract class StreamDumper extends AbstractDumper {
+    private static final String[] INDENTS = new String[16];
+
+    static {
+        String indents = "";
+        for (int x = 0; x < INDENTS.length; ++x) {
+            INDENTS[x] = indents;
+            indents += "    ";
+        }
+    }
+
     private final TypeUsageInformation typeUsageInformation;
     protected final Options options;
     protected final IllegalIdentifierDump illegalIdentifierDump;
     private final boolean convertUTF;
     protected int indent;
+    protected final StringBuilder buffer;
 
     private int outputCount = 0;
     private final Set<JavaTypeInstance> emitted = SetFactory.newSet();
+    // Identifiers we've already checked and found fine - most are seen many times.  Null if nothing's renamed.
+    private final Set<String> legalIdentifiers;
 
     StreamDumper(TypeUsageInformation typeUsageInformation, Options options, IllegalIdentifierDump illegalIdentifierDump, int indent) {
+        this(typeUsageInformation, options, illegalIdentifierDump, indent, new StringBuilder());
+    }
+
+    /*
+     * A buffer may be shared with another dumper writing to the same place, so that output stays in order.
+     */
+    StreamDumper(TypeUsageInformation typeUsageInformation, Options options, IllegalIdentifierDump illegalIdentifierDump, int indent, StringBuilder buffer) {
+        this.buffer = buffer;
         this.typeUsageInformation = typeUsageInformation;
         this.options = options;
         this.illegalIdentifierDump = illegalIdentifierDump;
         this.indent = indent;
         this.convertUTF = options.getOption(OptionsImpl.HIDE_UTF8);
+        this.legalIdentifiers = illegalIdentifierDump instanceof IllegalIdentifierDump.Nop ? null : SetFactory.<String>newSet();
     }
 
     @Override
@@ -41,16 +67,14 @@ public abstract class StreamDumper extends AbstractDumper {
         return NullMapping.INSTANCE;
     }
 
-    protected abstract void write(String s);
-
     @Override
     public Dumper label(String s, boolean inline) {
         processPendingCR();
         if (inline) {
             doIndent();
-            write(s + ": ");
+            buffer.append(s).append(": ");
         } else {
-            write(s + ":");
+            buffer.append(s).append(':');
             newln();
         }
         return this;
@@ -58,7 +82,11 @@ public abstract class StreamDumper extends AbstractDumper {
 
     @Override
     public Dumper identifier(String s, Object ref, boolean defines) {
-        return print(illegalIdentifierDump.getLegalIdentifierFor(s));
+        if (legalIdentifiers == null) return print(illegalIdentifierDump.getLegalIdentifierFor(s));
+        if (legalIdentifiers.contains(s)) return print(s);
+        String legal = illegalIdentifierDump.getLegalIdentifierFor(s);
+        if (legal.equals(s)) legalIdentifiers.add(s);
+        return print(legal);
     }
 
     @Override
@@ -85,7 +113,7 @@ public abstract class StreamDumper extends AbstractDumper {
             doNewLn = true;
         }
         if (convertUTF) s = QuotingUtils.enquoteUTF(s);
-        write(s);
+        buffer.append(s);
         atStart = false;
         if (doNewLn) {
             newln();
@@ -96,7 +124,13 @@ public abstract class StreamDumper extends AbstractDumper {
 
     @Override
     public Dumper print(char c) {
-        return print("" + c);
+        if (c == '\n' || convertUTF) return print(String.valueOf(c));
+        processPendingCR();
+        doIndent();
+        buffer.append(c);
+        atStart = false;
+        outputCount++;
+        return this;
     }
 
     @Override
@@ -126,7 +160,7 @@ public abstract class StreamDumper extends AbstractDumper {
     @Override
     public Dumper newln() {
         if (pendingCR) {
-            write("\n");
+            buffer.append('\n');
             if (atStart && inBlockComment != BlockCommentState.Not) {
                 doIndent();
             }
@@ -139,7 +173,7 @@ public abstract class StreamDumper extends AbstractDumper {
 
     @Override
     public Dumper endCodeln() {
-        write(";");
+        buffer.append(';');
         pendingCR = true;
         atStart = true;
         outputCount++;
@@ -148,15 +182,18 @@ public abstract class StreamDumper extends AbstractDumper {
 
     private void doIndent() {
         if (!atStart) return;
-        String indents = "    ";
-        for (int x = 0; x < indent; ++x) write(indents);
+        if (indent >= 0 && indent < INDENTS.length) {
+            buffer.append(INDENTS[indent]);
+        } else {
+            for (int x = 0; x < indent; ++x) buffer.append(INDENTS[1]);
+        }
         atStart = false;
-        if (inBlockComment != BlockCommentState.Not) write (" * ");
+        if (inBlockComment != BlockCommentState.Not) buffer.append(" * ");
     }
 
     private void processPendingCR() {
         if (pendingCR) {
-            write("\n");
+            buffer.append('\n');
             atStart = true;
             pendingCR = false;
         }
@@ -4,17 +4,13 @@ import org.benf.cfr.reader.entities.Method;
 import org.benf.cfr.reader.state.TypeUsageInformation;
 import org.benf.cfr.reader.util.getopt.Options;
 
+/*
+ * sb is used as our buffer, so it's always up to date.
+ */
 public class StringStreamDumper extends StreamDumper {
-    private final StringBuilder stringBuilder;
 
     public StringStreamDumper(StringBuilder sb, TypeUsageInformation typeUsageInformation, Options options, IllegalIdentifierDump illegalIdentifierDump) {
-        super(typeUsageInformation, options, illegalIdentifierDump,0);
-        this.stringBuilder = sb;
-    }
-
-    @Override
-    protected void write(String s) {
-        stringBuilder.append(s);
+        super(typeUsageInformation, options, illegalIdentifierDump, 0, sb);
     }
 
     @Override
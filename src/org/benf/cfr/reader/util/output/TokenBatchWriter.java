@@ -0,0 +1,130 @@
+package org.benf.cfr.reader.util.output;
+
+import org.benf.cfr.reader.api.OutputSinkFactory;
+import org.benf.cfr.reader.api.SinkReturns;
+
+import java.util.Arrays;
+import java.util.IdentityHashMap;
+import java.util.Map;
+
+/*
+ * Gathers tokens into parallel arrays, and hands them on a batch at a time - so there's no object (or flag set)
+ * per token, and no placeholder object per thing referred to, just an int id.
+ *
+ * The arrays belong to the one batch object, which is refilled each time.  A batch is handed on when it's
+ * full, and at EOF.  The writer (and so the ref ids) is shared with the dumpers for inner classes, as their
+ * tokens go in the same batches.
+ */
+class TokenBatchWriter implements TokenStreamDumper.TokenWriter, SinkReturns.TokenBatch {
+    private static final int BATCH_SIZE = 1024;
+    private static final int TEXT_SIZE = 16384;
+    private static final int DEFINES = 1 << SinkReturns.TokenTypeFlags.DEFINES.ordinal();
+
+    private final OutputSinkFactory.Sink<SinkReturns.TokenBatch> sink;
+    private final Map<Object, Integer> refIds = new IdentityHashMap<Object, Integer>();
+
+    private final int[] types = new int[BATCH_SIZE];
+    private final int[] textOffsets = new int[BATCH_SIZE + 1];
+    private final int[] flags = new int[BATCH_SIZE];
+    private final int[] ids = new int[BATCH_SIZE];
+    private final Object[] literals = new Object[BATCH_SIZE];
+    private char[] text = new char[TEXT_SIZE];
+    private int size;
+
+    TokenBatchWriter(OutputSinkFactory.Sink<SinkReturns.TokenBatch> sink) {
+        this.sink = sink;
+    }
+
+    private void add(SinkReturns.TokenType type, String tokenText, int tokenFlags, int id, Object literal) {
+        int start = textOffsets[size];
+        int end = start + tokenText.length();
+        if (end > text.length) {
+            text = Arrays.copyOf(text, Math.max(end, text.length * 2));
+        }
+        tokenText.getChars(0, tokenText.length(), text, start);
+        types[size] = type.ordinal();
+        flags[size] = tokenFlags;
+        ids[size] = id;
+        literals[size] = literal;
+        textOffsets[++size] = end;
+        if (size == BATCH_SIZE || end >= TEXT_SIZE || type == SinkReturns.TokenType.EOF) {
+            flush();
+        }
+    }
+
+    private void flush() {
+        sink.write(this);
+        Arrays.fill(literals, 0, size, null);
+        size = 0;
+        if (text.length > TEXT_SIZE) text = new char[TEXT_SIZE];
+    }
+
+    private int getRefId(Object ref) {
+        Integer id = refIds.get(ref);
+        if (id == null) {
+            id = refIds.size();
+            refIds.put(ref, id);
+        }
+        return id;
+    }
+
+    @Override
+    public void write(SinkReturns.TokenType type, String tokenText) {
+        add(type, tokenText, 0, -1, null);
+    }
+
+    @Override
+    public void write(SinkReturns.TokenType type, String tokenText, Object raw, boolean defines) {
+        add(type, tokenText, defines ? DEFINES : 0, -1, raw);
+    }
+
+    @Override
+    public void writeRef(SinkReturns.TokenType type, String tokenText, Object ref, boolean defines) {
+        add(type, tokenText, defines ? DEFINES : 0, getRefId(ref), null);
+    }
+
+    @Override
+    public void writeNewline() {
+        add(SinkReturns.TokenType.NEWLINE, "\n", 0, -1, null);
+    }
+
+    @Override
+    public TokenStreamDumper.TokenWriter forInnerDumper() {
+        return this;
+    }
+
+    @Override
+    public int size() {
+        return size;
+    }
+
+    @Override
+    public int[] getTokenTypes() {
+        return types;
+    }
+
+    @Override
+    public char[] getText() {
+        return text;
+    }
+
+    @Override
+    public int[] getTextOffsets() {
+        return textOffsets;
+    }
+
+    @Override
+    public int[] getFlags() {
+        return flags;
+    }
+
+    @Override
+    public int[] getRefIds() {
+        return ids;
+    }
+
+    @Override
+    public Object[] getLiteralValues() {
+        return literals;
+    }
+}
@@ -22,9 +22,7 @@ import java.util.Set;
 import static org.benf.cfr.reader.api.SinkReturns.TokenType.*;
 
 public class TokenStreamDumper extends AbstractDumper {
-    private final RecycleToken tok = new RecycleToken();
-    private final Token cr = new Token(NEWLINE, "\n", (Object) null);
-    private final OutputSinkFactory.Sink<SinkReturns.Token> sink;
+    private final TokenWriter writer;
     private final int version;
     private final JavaTypeInstance classType;
     private final TypeUsageInformation typeUsageInformation;
@@ -32,21 +30,17 @@ public class TokenStreamDumper extends AbstractDumper {
     private final IllegalIdentifierDump illegalIdentifierDump;
     private BlockCommentState inBlockComment = BlockCommentState.Not;
 
-    // We don't want to expose internals - we are simply making a offering to allow consumers to associate tokens.
-    private final Map<Object, Object> refMap = MapFactory.newLazyMap(new IdentityHashMap<Object, Object>(), new UnaryFunction<Object, Object>() {
-        @Override
-        public Object invoke(Object arg) {
-            return new Object();
-        }
-    });
-
     private int outputCount = 0;
     private boolean atStart = true;
     private boolean pendingCR = false;
     private final Set<JavaTypeInstance> emitted = SetFactory.newSet();
 
     TokenStreamDumper(OutputSinkFactory.Sink<SinkReturns.Token> sink, int version, JavaTypeInstance classType, TypeUsageInformation typeUsageInformation, Options options, IllegalIdentifierDump illegalIdentifierDump) {
-        this.sink = sink;
+        this(new ObjectTokenWriter(sink), version, classType, typeUsageInformation, options, illegalIdentifierDump);
+    }
+
+    TokenStreamDumper(TokenWriter writer, int version, JavaTypeInstance classType, TypeUsageInformation typeUsageInformation, Options options, IllegalIdentifierDump illegalIdentifierDump) {
+        this.writer = writer;
         this.version = version;
         this.classType = classType;
         this.typeUsageInformation = typeUsageInformation;
@@ -54,6 +48,71 @@ public class TokenStreamDumper extends AbstractDumper {
         this.illegalIdentifierDump = illegalIdentifierDump;
     }
 
+    /*
+     * How tokens are handed on - as Token objects, or batched up (see TokenBatchWriter).
+     */
+    interface TokenWriter {
+        void write(SinkReturns.TokenType type, String text);
+
+        /*
+         * raw is the value of a literal.
+         */
+        void write(SinkReturns.TokenType type, String text, Object raw, boolean defines);
+
+        /*
+         * ref is the (internal) thing being referred to, which consumers may use to associate tokens, but
+         * shouldn't see.
+         */
+        void writeRef(SinkReturns.TokenType type, String text, Object ref, boolean defines);
+
+        void writeNewline();
+
+        TokenWriter forInnerDumper();
+    }
+
+    private static class ObjectTokenWriter implements TokenWriter {
+        private final RecycleToken tok = new RecycleToken();
+        private final Token cr = new Token(NEWLINE, "\n", null, Collections.<SinkReturns.TokenTypeFlags>emptySet());
+        private final OutputSinkFactory.Sink<SinkReturns.Token> sink;
+
+        // We don't want to expose internals - we are simply making a offering to allow consumers to associate tokens.
+        private final Map<Object, Object> refMap = MapFactory.newLazyMap(new IdentityHashMap<Object, Object>(), new UnaryFunction<Object, Object>() {
+            @Override
+            public Object invoke(Object arg) {
+                return new Object();
+            }
+        });
+
+        private ObjectTokenWriter(OutputSinkFactory.Sink<SinkReturns.Token> sink) {
+            this.sink = sink;
+        }
+
+        @Override
+        public void write(SinkReturns.TokenType type, String text) {
+            sink.write(tok.set(type, text));
+        }
+
+        @Override
+        public void write(SinkReturns.TokenType type, String text, Object raw, boolean defines) {
+            sink.write(new Token(type, text, raw, defines));
+        }
+
+        @Override
+        public void writeRef(SinkReturns.TokenType type, String text, Object ref, boolean defines) {
+            sink.write(new Token(type, text, refMap.get(ref), defines));
+        }
+
+        @Override
+        public void writeNewline() {
+            sink.write(cr);
+        }
+
+        @Override
+        public TokenWriter forInnerDumper() {
+            return new ObjectTokenWriter(sink);
+        }
+    }
+
     /*
      * Re-used basic token to avoid allocation.
      */
@@ -95,20 +154,10 @@ public class TokenStreamDumper extends AbstractDumper {
         private final Object raw;
         private final Set<SinkReturns.TokenTypeFlags> flags;
 
-        Token(SinkReturns.TokenType type, String value, Object raw) {
-            this(type, value, raw, Collections.<SinkReturns.TokenTypeFlags>emptySet());
-        }
-
-        Token(SinkReturns.TokenType type, String value, Object raw, SinkReturns.TokenTypeFlags flag) {
-            this(type, value, raw, Collections.singleton(flag));
-        }
-
-        Token(SinkReturns.TokenType type, String value, SinkReturns.TokenTypeFlags flag) {
-            this(type, value, null, Collections.singleton(flag));
-        }
-
-        Token(SinkReturns.TokenType type, String value, SinkReturns.TokenTypeFlags... flags) {
-            this(type, value, null, SetFactory.newSet(flags));
+        Token(SinkReturns.TokenType type, String value, Object raw, boolean defines) {
+            this(type, value, raw, defines ?
+                    Collections.singleton(SinkReturns.TokenTypeFlags.DEFINES) :
+                    Collections.<SinkReturns.TokenTypeFlags>emptySet());
         }
 
         private Token(SinkReturns.TokenType type, String value, Object raw, Set<SinkReturns.TokenTypeFlags> flags) {
@@ -151,7 +200,7 @@ public class TokenStreamDumper extends AbstractDumper {
 
     private void sink(SinkReturns.TokenType type, String text) {
         flushPendingCR();
-        sink.write(tok.set(adjustComment(type), text));
+        writer.write(adjustComment(type), text);
     }
 
     private SinkReturns.TokenType adjustComment(SinkReturns.TokenType type) {
@@ -159,21 +208,26 @@ public class TokenStreamDumper extends AbstractDumper {
         return inBlockComment == BlockCommentState.Not ? type : COMMENT;
     }
 
-    private void sink(Token token) {
+    private void sink(SinkReturns.TokenType type, String text, Object raw, boolean defines) {
+        flushPendingCR();
+        writer.write(type, text, raw, defines);
+    }
+
+    private void sinkRef(SinkReturns.TokenType type, String text, Object ref, boolean defines) {
         flushPendingCR();
-        sink.write(token);
+        writer.writeRef(type, text, ref, defines);
     }
 
     private void flushPendingCR() {
         if (pendingCR) {
             pendingCR = false;
-            sink.write(cr);
+            writer.writeNewline();
         }
     }
 
     @Override
     public Dumper label(String s, boolean inline) {
-        sink(new Token(LABEL, s, SinkReturns.TokenTypeFlags.DEFINES));
+        sink(LABEL, s, null, true);
         return this;
     }
 
@@ -246,7 +300,7 @@ public class TokenStreamDumper extends AbstractDumper {
 
     @Override
     public Dumper literal(String s, Object o) {
-        sink(new Token(LITERAL, s, o));
+        sink(LITERAL, s, o, false);
         return this;
     }
 
@@ -258,11 +312,7 @@ public class TokenStreamDumper extends AbstractDumper {
 
     @Override
     public Dumper methodName(String s, MethodPrototype p, boolean special, boolean defines) {
-        if (defines) {
-            sink(new Token(METHOD, s, refMap.get(p), SinkReturns.TokenTypeFlags.DEFINES));
-        } else {
-            sink(new Token(METHOD, s, refMap.get(p)));
-        }
+        sinkRef(METHOD, s, p, defines);
         return this;
     }
 
@@ -277,11 +327,7 @@ public class TokenStreamDumper extends AbstractDumper {
 
     @Override
     public Dumper identifier(String s, Object ref, boolean defines) {
-        if (defines) {
-            sink(new Token(IDENTIFIER, s, refMap.get(ref), SinkReturns.TokenTypeFlags.DEFINES));
-        } else {
-            sink(new Token(IDENTIFIER, s, refMap.get(ref)));
-        }
+        sinkRef(IDENTIFIER, s, ref, defines);
         return this;
     }
 
@@ -293,7 +339,11 @@ public class TokenStreamDumper extends AbstractDumper {
 
     @Override
     public Dumper newln() {
-        if (pendingCR) sink(cr);
+        if (pendingCR) {
+            // The newline we were holding, and then this one.
+            flushPendingCR();
+            writer.writeNewline();
+        }
         pendingCR = true;
         if (inBlockComment != BlockCommentState.Not) {
             comment(" * ");
@@ -352,7 +402,7 @@ public class TokenStreamDumper extends AbstractDumper {
     @Override
     public Dumper fieldName(String name, JavaTypeInstance owner, boolean hiddenDeclaration, boolean isStatic, boolean defines) {
         if (defines) {
-            sink(new Token(FIELD, name, SinkReturns.TokenTypeFlags.DEFINES));
+            sink(FIELD, name, null, true);
         } else {
             sink(FIELD, name);
         }
@@ -361,7 +411,7 @@ public class TokenStreamDumper extends AbstractDumper {
 
     @Override
     public Dumper withTypeUsageInformation(TypeUsageInformation innerclassTypeUsageInformation) {
-        return new TokenStreamDumper(sink, version, classType, innerclassTypeUsageInformation, options, illegalIdentifierDump);
+        return new TokenStreamDumper(writer.forInnerDumper(), version, classType, innerclassTypeUsageInformation, options, illegalIdentifierDump);
     }
 
     @Override